@@ -0,0 +1,110 @@
+package io.github.kartikhub.benchmark;
+
+import io.github.kartikhub.config.KiteHttpTransport;
+import io.github.kartikhub.diagnostics.PhaseHistogram;
+import io.github.kartikhub.diagnostics.PhaseTimers;
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.service.CandleStore;
+import io.github.kartikhub.service.KiteCallExecutor;
+import io.github.kartikhub.service.KiteCallGuard;
+import io.github.kartikhub.service.KiteClientRegistry;
+import io.github.kartikhub.service.KiteConcurrencyLimiter;
+import io.github.kartikhub.service.KiteMetrics;
+import io.github.kartikhub.service.KiteQuoteBatcher;
+import io.github.kartikhub.service.KiteRateLimiter;
+import io.github.kartikhub.service.KiteResponseCache;
+import io.github.kartikhub.service.KiteService;
+import io.github.kartikhub.session.KiteSessionManager;
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+import io.github.kartikhub.session.SessionListener;
+
+import com.google.gson.Gson;
+import com.zerodhatech.kiteconnect.KiteConnect;
+import com.zerodhatech.models.Holding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds the application objects used by the benchmarks without starting a Spring context.
+ */
+final class BenchmarkFixtures {
+    static final String API_KEY = "benchmark";
+
+    private BenchmarkFixtures() {
+    }
+
+    static KiteProperties properties() {
+        KiteProperties properties = new KiteProperties();
+        properties.setApiKey(API_KEY);
+        properties.setApiSecret("benchmark-secret");
+        properties.setUserId("BM0001");
+        return properties;
+    }
+
+    static KiteSessionManager sessionManager() {
+        return new KiteSessionManager(new DefaultListableBeanFactory().getBeanProvider(SessionListener.class));
+    }
+
+    static String[] authenticatedSessions(KiteSessionManager sessionManager, int count) {
+        String[] sessionIds = new String[count];
+        for (int i = 0; i < count; i++) {
+            sessionIds[i] = "session-" + i;
+            sessionManager.createSession(sessionIds[i], "token-" + i, "BM" + i);
+            sessionManager.setAuthenticated(sessionIds[i], true);
+        }
+        return sessionIds;
+    }
+
+    /**
+     * KiteService whose per-session clients are replaced by {@code client}, so no HTTP calls are made.
+     */
+    static KiteService kiteService(KiteProperties properties, KiteSessionManager sessionManager, KiteConnect client) {
+        KiteClientRegistry clientRegistry = new KiteClientRegistry(properties, new KiteHttpTransport(null)) {
+            @Override
+            public KiteConnect getClient(SessionData session) {
+                return client;
+            }
+        };
+        return new KiteService(new KiteConnect(API_KEY), properties, sessionManager, clientRegistry,
+            new KiteResponseCache(properties), new KiteCallExecutor(properties),
+            new KiteConcurrencyLimiter(properties), new KiteRateLimiter(properties, Duration.ofSeconds(30)),
+            new KiteMetrics(new SimpleMeterRegistry()), new KiteQuoteBatcher(properties),
+            new CandleStore(properties), new KiteCallGuard(properties),
+            new PhaseTimers(new PhaseHistogram(properties)));
+    }
+
+    /**
+     * KiteConnect stub that returns a fixed holdings list.
+     */
+    static KiteConnect stubClient(List<Holding> holdings) {
+        return new KiteConnect(API_KEY) {
+            @Override
+            public List<Holding> getHoldings() {
+                return holdings;
+            }
+        };
+    }
+
+    /**
+     * Realistic holdings, built through Gson the same way the SDK parses API responses.
+     */
+    static ArrayList<Holding> holdings(int count) {
+        Gson gson = new Gson();
+        ArrayList<Holding> holdings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String json = String.format(Locale.ROOT, """
+                {"tradingsymbol": "SYMBOL%d", "exchange": "%s", "instrument_token": "%d", "isin": "INE%09d",
+                 "product": "CNC", "quantity": %d, "t1_quantity": 0, "average_price": %.2f, "last_price": %.2f,
+                 "close_price": %.2f, "pnl": %.2f, "day_change": %.2f, "day_change_percentage": %.4f}
+                """, i, i % 2 == 0 ? "NSE" : "BSE", 100000 + i, i, 10 + i % 90, 100.0 + i, 105.0 + i,
+                104.0 + i, (5.0) * (10 + i % 90), 1.0, 0.95);
+            holdings.add(gson.fromJson(json, Holding.class));
+        }
+        return holdings;
+    }
+}
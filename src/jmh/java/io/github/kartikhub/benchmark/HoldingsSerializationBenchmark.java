@@ -0,0 +1,83 @@
+package io.github.kartikhub.benchmark;
+
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.tool.ToolResultSerializer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zerodhatech.models.Holding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a holdings result into the JSON text returned by the MCP tool layer.
+ * Run with {@code -prof gc} to see bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HoldingsSerializationBenchmark {
+
+    @Param({"10", "500", "5000"})
+    private int holdingCount;
+
+    private ArrayList<Holding> holdings;
+    private ToolCallResultConverter toolResultConverter;
+    private ObjectMapper objectMapper;
+    private ToolResultSerializer resultSerializer;
+    private ToolResultSerializer uncachedResultSerializer;
+
+    @Setup
+    public void setUp() {
+        holdings = BenchmarkFixtures.holdings(holdingCount);
+        toolResultConverter = new DefaultToolCallResultConverter();
+        objectMapper = new ObjectMapper();
+        resultSerializer = new ToolResultSerializer(new KiteProperties());
+        KiteProperties uncached = new KiteProperties();
+        uncached.getSerialization().setCacheEncoded(false);
+        uncachedResultSerializer = new ToolResultSerializer(uncached);
+    }
+
+    /**
+     * The conversion Spring AI applies to {@code @Tool} return values.
+     */
+    @Benchmark
+    public String toolResultConverter() {
+        return toolResultConverter.convert(holdings, ArrayList.class);
+    }
+
+    /**
+     * The serializer installed for Kite tools; the same holdings list is reused, as while the response cache is fresh.
+     */
+    @Benchmark
+    public String kiteResultSerializer() {
+        return resultSerializer.serialize(holdings, ArrayList.class);
+    }
+
+    @Benchmark
+    public String kiteResultSerializerUncached() {
+        return uncachedResultSerializer.serialize(holdings, ArrayList.class);
+    }
+
+    @Benchmark
+    public byte[] jacksonBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(holdings);
+    }
+}
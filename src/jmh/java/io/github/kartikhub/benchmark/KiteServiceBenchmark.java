@@ -0,0 +1,63 @@
+package io.github.kartikhub.benchmark;
+
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.service.KiteService;
+import io.github.kartikhub.session.KiteSessionManager;
+
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Holding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead that KiteService adds around an upstream call (session validation, client lookup,
+ * limiters, cache), measured against a stubbed KiteConnect that returns immediately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class KiteServiceBenchmark {
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    private KiteService kiteService;
+    private String[] sessionIds;
+
+    @Setup
+    public void setUp() {
+        KiteProperties properties = BenchmarkFixtures.properties();
+        properties.getCache().setEnabled(cacheEnabled);
+        // Rate limiting would dominate the measurement; it is exercised by the load test instead
+        properties.getRateLimit().setEnabled(false);
+
+        KiteSessionManager sessionManager = BenchmarkFixtures.sessionManager();
+        sessionIds = BenchmarkFixtures.authenticatedSessions(sessionManager, 1000);
+        kiteService = BenchmarkFixtures.kiteService(properties, sessionManager,
+            BenchmarkFixtures.stubClient(BenchmarkFixtures.holdings(50)));
+    }
+
+    @Benchmark
+    public ArrayList<Holding> getHoldings() throws KiteException, IOException {
+        return kiteService.getHoldings(sessionIds[ThreadLocalRandom.current().nextInt(sessionIds.length)]);
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.kartikhub.benchmark;
+
+import io.github.kartikhub.session.KiteSessionManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session lookups on the tool hot path, with several threads hitting the same manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class SessionManagerBenchmark {
+
+    @Param({"100", "10000"})
+    private int sessionCount;
+
+    private KiteSessionManager sessionManager;
+    private String[] sessionIds;
+
+    @Setup
+    public void setUp() {
+        sessionManager = BenchmarkFixtures.sessionManager();
+        sessionIds = BenchmarkFixtures.authenticatedSessions(sessionManager, sessionCount);
+    }
+
+    @Benchmark
+    public KiteSessionManager.SessionData getSession() {
+        return sessionManager.getSession(randomSessionId());
+    }
+
+    @Benchmark
+    public void validateClientSession() {
+        sessionManager.validateClientSession(randomSessionId());
+    }
+
+    /**
+     * All threads touching one session, the worst case for contention on a single entry.
+     */
+    @Benchmark
+    public KiteSessionManager.SessionData getSameSession() {
+        return sessionManager.getSession(sessionIds[0]);
+    }
+
+    private String randomSessionId() {
+        return sessionIds[ThreadLocalRandom.current().nextInt(sessionIds.length)];
+    }
+}
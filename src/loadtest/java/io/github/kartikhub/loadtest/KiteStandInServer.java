@@ -0,0 +1,255 @@
+package io.github.kartikhub.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the Kite Connect REST API, for load testing without touching Zerodha.
+ * <p>
+ * Serves session token exchange, holdings, positions, margins, orders and quotes with realistic
+ * payloads, configurable latency, random failures and per-token rate limiting. Start it, then run
+ * the MCP server with {@code KITE_BASE_URL=http://localhost:9090}. Settings are system properties:
+ * <ul>
+ *   <li>{@code standin.port} (9090)</li>
+ *   <li>{@code standin.latency-ms} mean added latency (150) and {@code standin.jitter-ms} (100)</li>
+ *   <li>{@code standin.error-rate} fraction of requests failing with a 500 (0.0)</li>
+ *   <li>{@code standin.rate-limit} requests per second per access token before 429s (10, 0 disables)</li>
+ *   <li>{@code standin.holdings} holdings per account (50)</li>
+ *   <li>{@code standin.instruments} rows in the {@code /instruments} CSV dump (100000)</li>
+ * </ul>
+ */
+public class KiteStandInServer {
+    private static final DateTimeFormatter KITE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final long latencyMs = Long.getLong("standin.latency-ms", 150);
+    private final long jitterMs = Long.getLong("standin.jitter-ms", 100);
+    private final double errorRate = Double.parseDouble(System.getProperty("standin.error-rate", "0.0"));
+    private final int rateLimit = Integer.getInteger("standin.rate-limit", 10);
+    private final int holdingCount = Integer.getInteger("standin.holdings", 50);
+    private final int instrumentCount = Integer.getInteger("standin.instruments", 100_000);
+
+    // Access token -> packed (second, count) used for the fixed-window rate limit
+    private final Map<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private interface Handler {
+        String handle(HttpExchange exchange) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("standin.port", 9090);
+        new KiteStandInServer().start(port);
+    }
+
+    public HttpServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        route(server, "/session/token", exchange -> sessionToken());
+        route(server, "/portfolio/holdings", exchange -> holdings());
+        route(server, "/portfolio/positions", exchange -> "{\"net\": [], \"day\": []}");
+        route(server, "/user/margins", exchange -> margins());
+        route(server, "/orders", exchange -> "[]");
+        route(server, "/quote/ltp", exchange -> quotes(exchange, true));
+        route(server, "/quote", exchange -> quotes(exchange, false));
+        server.createContext("/instruments", this::instruments);
+        server.start();
+        System.out.printf("Kite stand-in listening on http://localhost:%d (latency %d +/- %d ms, error rate %.3f, rate limit %d/s)%n",
+            port, latencyMs, jitterMs, errorRate, rateLimit);
+
+        Thread reporter = Thread.ofVirtual().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                System.out.printf("served=%d throttled=%d failed=%d%n", served.sum(), throttled.sum(), failed.sum());
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(reporter::interrupt));
+        return server;
+    }
+
+    private void route(HttpServer server, String path, Handler handler) {
+        server.createContext(path, exchange -> {
+            try (exchange) {
+                simulateLatency();
+                if (isThrottled(exchange)) {
+                    throttled.increment();
+                    respond(exchange, 429, error("Too many requests", "NetworkException"));
+                } else if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                    failed.increment();
+                    respond(exchange, 500, error("Simulated upstream failure", "GeneralException"));
+                } else {
+                    served.increment();
+                    respond(exchange, 200, "{\"status\": \"success\", \"data\": " + handler.handle(exchange) + "}");
+                }
+            }
+        });
+    }
+
+    private void simulateLatency() {
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(-jitterMs, jitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean isThrottled(HttpExchange exchange) {
+        if (rateLimit <= 0) {
+            return false;
+        }
+        String token = String.valueOf(exchange.getRequestHeaders().getFirst("Authorization"));
+        AtomicLong window = windows.computeIfAbsent(token, t -> new AtomicLong());
+        long second = System.currentTimeMillis() / 1000;
+        while (true) {
+            long current = window.get();
+            long next = (current >>> 20) == second ? current + 1 : (second << 20) | 1;
+            if (window.compareAndSet(current, next)) {
+                return (next & 0xFFFFF) > rateLimit;
+            }
+        }
+    }
+
+    /**
+     * Streams a synthetic instrument dump in Kite's CSV format: equities on NSE/BSE plus NFO options.
+     */
+    private void instruments(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("Content-Type", "text/csv");
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                out.write("instrument_token,exchange_token,tradingsymbol,name,last_price,expiry,strike,tick_size,"
+                    + "lot_size,instrument_type,segment,exchange\n");
+                for (int i = 0; i < instrumentCount; i++) {
+                    int token = 100000 + i;
+                    if (i % 10 < 2) {
+                        String exchangeName = i % 10 == 0 ? "NSE" : "BSE";
+                        out.write(String.format(Locale.ROOT, "%d,%d,STOCK%d,\"STOCK %d LTD\",0,,0,0.05,1,EQ,%s,%s%n",
+                            token, token >> 8, i / 10, i / 10, exchangeName, exchangeName));
+                    } else {
+                        int strike = 1000 + (i % 10) * 50;
+                        out.write(String.format(Locale.ROOT, "%d,%d,STOCK%d26OCT%d%s,\"STOCK%d\",0,2026-10-29,%d,0.05,500,%s,NFO-OPT,NFO%n",
+                            token, token >> 8, i / 10, strike, i % 2 == 0 ? "CE" : "PE", i / 10, strike,
+                            i % 2 == 0 ? "CE" : "PE"));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(String message, String errorType) {
+        return String.format("{\"status\": \"error\", \"message\": \"%s\", \"error_type\": \"%s\", \"data\": null}",
+            message, errorType);
+    }
+
+    private static String sessionToken() {
+        String userId = "ST" + ThreadLocalRandom.current().nextInt(1000, 9999);
+        return String.format("""
+            {"user_id": "%s", "user_name": "Stand-in User", "user_shortname": "Stand-in", "email": "standin@example.com",
+             "user_type": "individual", "broker": "ZERODHA", "exchanges": ["NSE", "BSE", "NFO"],
+             "products": ["CNC", "MIS", "NRML"], "order_types": ["MARKET", "LIMIT", "SL", "SL-M"],
+             "api_key": "standin", "access_token": "%s", "public_token": "%s", "refresh_token": "",
+             "login_time": "%s", "avatar_url": null}
+            """, userId, UUID.randomUUID(), UUID.randomUUID(), LocalDateTime.now().format(KITE_TIME));
+    }
+
+    private String holdings() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> rows = new ArrayList<>(holdingCount);
+        for (int i = 0; i < holdingCount; i++) {
+            int quantity = 1 + random.nextInt(500);
+            double average = 50 + random.nextDouble(5000);
+            double close = average * (0.7 + random.nextDouble(0.6));
+            double last = close * (0.97 + random.nextDouble(0.06));
+            rows.add(String.format(Locale.ROOT, """
+                {"tradingsymbol": "STOCK%d", "exchange": "%s", "instrument_token": %d, "isin": "INE%09d",
+                 "product": "CNC", "price": 0, "quantity": %d, "used_quantity": 0, "t1_quantity": 0,
+                 "realised_quantity": %d, "authorised_quantity": 0, "opening_quantity": %d,
+                 "collateral_quantity": 0, "collateral_type": "", "discrepancy": false,
+                 "average_price": %.2f, "last_price": %.2f, "close_price": %.2f, "pnl": %.2f,
+                 "day_change": %.2f, "day_change_percentage": %.4f}""",
+                i, i % 3 == 0 ? "BSE" : "NSE", 100000 + i, i, quantity, quantity, quantity,
+                average, last, close, (last - average) * quantity, last - close, (last - close) / close * 100));
+        }
+        return "[" + String.join(",", rows) + "]";
+    }
+
+    private static String margins() {
+        String segment = """
+            {"enabled": true, "net": %.2f,
+             "available": {"adhoc_margin": 0, "cash": %.2f, "opening_balance": %.2f, "live_balance": %.2f,
+                           "collateral": 0, "intraday_payin": 0},
+             "utilised": {"debits": 0, "exposure": 0, "m2m_realised": 0, "m2m_unrealised": 0, "option_premium": 0,
+                          "payout": 0, "span": 0, "holding_sales": 0, "turnover": 0, "liquid_collateral": 0,
+                          "stock_collateral": 0, "delivery": 0}}""";
+        double cash = 100000;
+        return "{\"equity\": " + String.format(Locale.ROOT, segment, cash, cash, cash, cash)
+            + ", \"commodity\": " + String.format(Locale.ROOT, segment, 0.0, 0.0, 0.0, 0.0) + "}";
+    }
+
+    private static String quotes(HttpExchange exchange, boolean ltpOnly) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String now = LocalDateTime.now().format(KITE_TIME);
+        List<String> entries = new ArrayList<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (!parameter.startsWith("i=")) {
+                    continue;
+                }
+                String instrument = URLDecoder.decode(parameter.substring(2), StandardCharsets.UTF_8);
+                long token = Math.abs((long) instrument.hashCode());
+                double price = 100 + random.nextDouble(2000);
+                String quote = ltpOnly
+                    ? String.format(Locale.ROOT, "{\"instrument_token\": %d, \"last_price\": %.2f}", token, price)
+                    : String.format(Locale.ROOT, """
+                        {"instrument_token": %d, "timestamp": "%s", "last_trade_time": "%s", "last_price": %.2f,
+                         "last_quantity": 1, "buy_quantity": 1000, "sell_quantity": 1000, "volume": 100000,
+                         "average_price": %.2f, "oi": 0, "oi_day_high": 0, "oi_day_low": 0, "net_change": 0,
+                         "lower_circuit_limit": %.2f, "upper_circuit_limit": %.2f,
+                         "ohlc": {"open": %.2f, "high": %.2f, "low": %.2f, "close": %.2f},
+                         "depth": {"buy": [], "sell": []}}""",
+                        token, now, now, price, price, price * 0.8, price * 1.2, price, price * 1.01, price * 0.99, price);
+                entries.add("\"" + instrument + "\": " + quote);
+            }
+        }
+        return "{" + String.join(",", entries) + "}";
+    }
+}
@@ -0,0 +1,289 @@
+package io.github.kartikhub.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end load driver for the MCP server.
+ * <p>
+ * Each simulated agent opens its own SSE session on {@code /mcp/sse}, initializes, calls {@code login},
+ * completes the OAuth redirect by hitting {@code /callback} directly, then calls {@code get_holdings}
+ * repeatedly. Run the server against {@link KiteStandInServer}. Settings are system properties:
+ * <ul>
+ *   <li>{@code loadtest.url} MCP server root (http://localhost:8080)</li>
+ *   <li>{@code loadtest.clients} concurrent SSE sessions (100)</li>
+ *   <li>{@code loadtest.calls} get_holdings calls per session (20)</li>
+ *   <li>{@code loadtest.think-ms} pause between calls (0)</li>
+ * </ul>
+ */
+public class McpLoadDriver {
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(60);
+
+    private final URI server = URI.create(System.getProperty("loadtest.url", "http://localhost:8080"));
+    private final int clients = Integer.getInteger("loadtest.clients", 100);
+    private final int calls = Integer.getInteger("loadtest.calls", 20);
+    private final long thinkMs = Long.getLong("loadtest.think-ms", 0);
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final ObjectMapper json = new ObjectMapper();
+    private final Map<String, LatencyRecorder> latencies = new ConcurrentHashMap<>();
+    private final LongAdder failedSessions = new LongAdder();
+
+    @FunctionalInterface
+    private interface Step<T> {
+        T run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new McpLoadDriver().run();
+    }
+
+    public void run() {
+        System.out.printf("Driving %d sessions x %d get_holdings calls against %s%n", clients, calls, server);
+        long started = System.nanoTime();
+        try (ExecutorService agents = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                agents.submit(this::runAgent);
+            }
+        }
+        report(System.nanoTime() - started);
+    }
+
+    private void runAgent() {
+        try (McpSession session = McpSession.open(http, json, server)) {
+            timed("initialize", () -> session.request("initialize", Map.of(
+                "protocolVersion", "2024-11-05",
+                "capabilities", Map.of(),
+                "clientInfo", Map.of("name", "kite-load-driver", "version", "1.0"))));
+            session.notify("notifications/initialized");
+
+            JsonNode login = timed("login", () -> session.callTool("login", Map.of()));
+            String sessionId = json.readTree(login.path("content").path(0).path("text").asText())
+                .path("sessionId").asText();
+            timed("callback", () -> callback(sessionId));
+
+            for (int i = 0; i < calls; i++) {
+                timed("get_holdings", () -> session.callTool("get_holdings", Map.of("sessionId", sessionId)));
+                if (thinkMs > 0) {
+                    Thread.sleep(thinkMs);
+                }
+            }
+        } catch (Exception e) {
+            failedSessions.increment();
+            System.err.println("Session failed: " + e.getMessage());
+        }
+    }
+
+    private int callback(String sessionId) throws IOException, InterruptedException {
+        String query = "request_token=" + UUID.randomUUID() + "&status=success&client_session="
+            + URLEncoder.encode(sessionId, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(server.resolve("/callback?" + query)).GET().build(),
+            HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (!location.endsWith("/success.html")) {
+            throw new IllegalStateException("Callback failed with status " + response.statusCode() + " -> " + location);
+        }
+        return response.statusCode();
+    }
+
+    private <T> T timed(String operation, Step<T> step) throws Exception {
+        LatencyRecorder recorder = latencies.computeIfAbsent(operation, k -> new LatencyRecorder());
+        long start = System.nanoTime();
+        try {
+            T result = step.run();
+            if (result instanceof JsonNode node && node.path("isError").asBoolean(false)) {
+                throw new IllegalStateException(operation + " returned an error: " + node.path("content"));
+            }
+            recorder.record(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            recorder.recordError();
+            throw e;
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nCompleted in %.1f s, failed sessions: %d%n", seconds, failedSessions.sum());
+        System.out.printf("%-14s %8s %7s %10s %9s %9s %9s %9s%n",
+            "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        latencies.forEach((operation, recorder) -> {
+            long[] samples = recorder.sorted();
+            System.out.printf("%-14s %8d %7d %10.1f %9.1f %9.1f %9.1f %9.1f%n", operation, samples.length,
+                recorder.errors.sum(), samples.length / seconds, percentile(samples, 0.50), percentile(samples, 0.99),
+                percentile(samples, 0.999), percentile(samples, 1.0));
+        });
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static final class LatencyRecorder {
+        private long[] samples = new long[1024];
+        private int size;
+        private final LongAdder errors = new LongAdder();
+
+        synchronized void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        void recordError() {
+            errors.increment();
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * Minimal MCP client over the HTTP+SSE transport: requests are POSTed to the endpoint announced on
+     * the SSE stream and responses arrive back on the stream, matched by JSON-RPC id.
+     */
+    private static final class McpSession implements AutoCloseable {
+        private final HttpClient http;
+        private final ObjectMapper json;
+        private final URI server;
+        private final CompletableFuture<URI> messageEndpoint = new CompletableFuture<>();
+        private final Map<Long, CompletableFuture<JsonNode>> pending = new ConcurrentHashMap<>();
+        private final AtomicLong nextId = new AtomicLong(1);
+        private volatile Stream<String> events;
+
+        private McpSession(HttpClient http, ObjectMapper json, URI server) {
+            this.http = http;
+            this.json = json;
+            this.server = server;
+        }
+
+        static McpSession open(HttpClient http, ObjectMapper json, URI server) throws Exception {
+            McpSession session = new McpSession(http, json, server);
+            HttpRequest request = HttpRequest.newBuilder(server.resolve("/mcp/sse"))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+            HttpResponse<Stream<String>> response = http.send(request, HttpResponse.BodyHandlers.ofLines());
+            session.events = response.body();
+            Thread.ofVirtual().start(session::readEvents);
+            session.messageEndpoint.get(RESPONSE_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            return session;
+        }
+
+        JsonNode callTool(String name, Map<String, Object> arguments) throws Exception {
+            return request("tools/call", Map.of("name", name, "arguments", arguments));
+        }
+
+        JsonNode request(String method, Map<String, Object> params) throws Exception {
+            long id = nextId.getAndIncrement();
+            CompletableFuture<JsonNode> response = new CompletableFuture<>();
+            pending.put(id, response);
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("jsonrpc", "2.0");
+            message.put("id", id);
+            message.put("method", method);
+            message.put("params", params);
+            post(message);
+
+            JsonNode reply = response.get(RESPONSE_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            if (reply.has("error")) {
+                throw new IllegalStateException(method + " failed: " + reply.get("error"));
+            }
+            return reply.path("result");
+        }
+
+        void notify(String method) throws Exception {
+            post(Map.of("jsonrpc", "2.0", "method", method));
+        }
+
+        private void post(Map<String, Object> message) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(messageEndpoint.get())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(message)))
+                .build();
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("POST " + message.get("method") + " returned " + response.statusCode());
+            }
+        }
+
+        private void readEvents() {
+            String[] event = {null};
+            StringBuilder data = new StringBuilder();
+            try {
+                events.forEach(line -> {
+                    if (line.startsWith("event:")) {
+                        event[0] = line.substring(6).trim();
+                    } else if (line.startsWith("data:")) {
+                        data.append(line.substring(5).trim());
+                    } else if (line.isEmpty() && data.length() > 0) {
+                        dispatch(event[0], data.toString());
+                        event[0] = null;
+                        data.setLength(0);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Stream closed
+            }
+            IllegalStateException closed = new IllegalStateException("SSE stream closed");
+            messageEndpoint.completeExceptionally(closed);
+            pending.values().forEach(future -> future.completeExceptionally(closed));
+        }
+
+        private void dispatch(String event, String data) {
+            if ("endpoint".equals(event)) {
+                messageEndpoint.complete(server.resolve(data));
+                return;
+            }
+            try {
+                JsonNode message = json.readTree(data);
+                CompletableFuture<JsonNode> response = message.has("id") ? pending.remove(message.get("id").asLong()) : null;
+                if (response != null) {
+                    response.complete(message);
+                }
+            } catch (IOException e) {
+                System.err.println("Unparseable SSE message: " + data);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (events != null) {
+                events.close();
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package io.github.kartikhub;
 
+import io.github.kartikhub.config.VirtualThreadSchedulers;
+
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -11,7 +13,9 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class Application {
 
     public static void main(String[] args) {
-        SpringApplication.run(Application.class, args);
+        SpringApplication application = new SpringApplication(Application.class);
+        application.addListeners(new VirtualThreadSchedulers());
+        application.run(args);
     }
 }
 
@@ -0,0 +1,63 @@
+package io.github.kartikhub.config;
+
+import io.github.kartikhub.diagnostics.PhaseTimers;
+import io.github.kartikhub.service.KiteDeadline;
+import io.github.kartikhub.service.KiteMetrics;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.time.Duration;
+
+/**
+ * Decorates a tool callback with per-tool latency timers tagged by outcome, and runs the tool under a
+ * {@link KiteDeadline} of the MCP request timeout so upstream calls never outlive the request. The call
+ * is also timed as a {@link PhaseTimers#invocation tool invocation} for the per-phase latency breakdown.
+ */
+public class InstrumentedToolCallback implements ToolCallback {
+    private final ToolCallback delegate;
+    private final String toolName;
+    private final KiteMetrics.ToolTimers timers;
+    private final Duration requestTimeout;
+    private final PhaseTimers phaseTimers;
+
+    public InstrumentedToolCallback(ToolCallback delegate, KiteMetrics metrics, Duration requestTimeout,
+                                    PhaseTimers phaseTimers) {
+        this.delegate = delegate;
+        this.toolName = delegate.getToolDefinition().name();
+        this.timers = metrics.toolTimers(toolName);
+        this.requestTimeout = requestTimeout;
+        this.phaseTimers = phaseTimers;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            String result = phaseTimers.invocation(toolName, toolInput, () -> KiteDeadline.within(requestTimeout,
+                () -> toolContext != null ? delegate.call(toolInput, toolContext) : delegate.call(toolInput)));
+            succeeded = true;
+            return result;
+        } finally {
+            timers.record(System.nanoTime() - start, succeeded);
+        }
+    }
+}
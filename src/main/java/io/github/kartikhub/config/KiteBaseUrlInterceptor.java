@@ -0,0 +1,48 @@
+package io.github.kartikhub.config;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Redirects requests the Kite SDK sends to its hard-coded API root to a configured base URL,
+ * e.g. a local Kite stand-in used for load testing.
+ */
+public class KiteBaseUrlInterceptor implements Interceptor {
+    public static final String DEFAULT_BASE_URL = "https://api.kite.trade";
+
+    private static final String KITE_API_HOST = HttpUrl.get(DEFAULT_BASE_URL).host();
+
+    private final HttpUrl baseUrl;
+
+    public KiteBaseUrlInterceptor(String baseUrl) {
+        this.baseUrl = HttpUrl.get(baseUrl);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        HttpUrl url = request.url();
+        if (!KITE_API_HOST.equals(url.host())) {
+            return chain.proceed(request);
+        }
+
+        HttpUrl.Builder rewritten = url.newBuilder()
+            .scheme(baseUrl.scheme())
+            .host(baseUrl.host())
+            .port(baseUrl.port())
+            .encodedPath("/");
+        for (String segment : baseUrl.pathSegments()) {
+            if (!segment.isEmpty()) {
+                rewritten.addPathSegment(segment);
+            }
+        }
+        for (String segment : url.pathSegments()) {
+            rewritten.addPathSegment(segment);
+        }
+        return chain.proceed(request.newBuilder().url(rewritten.build()).build());
+    }
+}
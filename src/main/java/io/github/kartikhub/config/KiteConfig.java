@@ -3,18 +3,66 @@ package io.github.kartikhub.config;
 import io.github.kartikhub.properties.KiteProperties;
 
 import com.zerodhatech.kiteconnect.KiteConnect;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
 @Configuration
 @EnableConfigurationProperties(KiteProperties.class)
 public class KiteConfig {
 
+    /**
+     * Unauthenticated client used for login URLs. Authenticated calls go through
+     * per-session clients from {@link io.github.kartikhub.service.KiteClientRegistry}.
+     */
     @Bean
     public KiteConnect kiteConnect(KiteProperties kiteProperties) {
         KiteConnect kiteConnect = new KiteConnect(kiteProperties.getApiKey());
         kiteConnect.setUserId(kiteProperties.getUserId());
         return kiteConnect;
     }
+
+    /**
+     * The HTTP client shared by every Kite client, tuned from {@code kite.http}. All Kite REST calls go
+     * to one host, so the pool keeps up to {@code max-idle-connections} connections to it alive between
+     * bursts instead of OkHttp's default of five, which would cost a TLS handshake for most calls once
+     * more than five run concurrently.
+     */
+    @Bean
+    public KiteHttpTransport kiteHttpTransport(KiteConnect kiteConnect, KiteProperties kiteProperties,
+                                               MeterRegistry meterRegistry) {
+        OkHttpClient httpClient = KiteHttpTransport.httpClientOf(kiteConnect);
+        if (httpClient != null) {
+            KiteProperties.Http config = kiteProperties.getHttp();
+            OkHttpClient.Builder builder = httpClient.newBuilder()
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(), config.getKeepAlive().toMillis(),
+                                                   TimeUnit.MILLISECONDS))
+                .connectTimeout(config.getConnectTimeout())
+                .readTimeout(config.getReadTimeout())
+                .writeTimeout(config.getWriteTimeout())
+                .eventListenerFactory(new KiteConnectionMetrics(meterRegistry))
+                .addInterceptor(new KiteDeadlineInterceptor());
+            if (!config.isCompression()) {
+                // OkHttp asks for gzip and decompresses transparently unless the request names an encoding
+                builder.addInterceptor(chain -> chain.proceed(
+                    chain.request().newBuilder().header("Accept-Encoding", "identity").build()));
+            }
+            String baseUrl = kiteProperties.getBaseUrl();
+            if (!KiteBaseUrlInterceptor.DEFAULT_BASE_URL.equals(baseUrl)) {
+                log.info("Routing Kite API calls to {}", baseUrl);
+                builder.addInterceptor(new KiteBaseUrlInterceptor(baseUrl));
+            }
+            httpClient = builder.build();
+        }
+        KiteHttpTransport transport = new KiteHttpTransport(httpClient);
+        transport.attach(kiteConnect);
+        return transport;
+    }
 }
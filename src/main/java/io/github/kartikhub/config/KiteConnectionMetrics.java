@@ -0,0 +1,113 @@
+package io.github.kartikhub.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how Kite HTTP calls get their connection: whether a pooled connection was reused or a new
+ * one opened, and how long DNS lookups, TCP connects and TLS handshakes took for the new ones.
+ * A low reuse rate under steady load means the pool keeps too few idle connections.
+ */
+public class KiteConnectionMetrics implements EventListener.Factory {
+    private final Counter reused;
+    private final Counter opened;
+    private final Counter failed;
+    private final Timer dns;
+    private final Timer connect;
+    private final Timer tlsHandshake;
+
+    public KiteConnectionMetrics(MeterRegistry registry) {
+        this.reused = acquired(registry, "reused");
+        this.opened = acquired(registry, "new");
+        this.failed = Counter.builder("kite.http.connect.failures")
+            .description("Failed attempts to open a connection to Kite")
+            .register(registry);
+        this.dns = phase(registry, "dns");
+        this.connect = phase(registry, "connect");
+        this.tlsHandshake = phase(registry, "tls");
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        return new Listener();
+    }
+
+    private static Counter acquired(MeterRegistry registry, String connection) {
+        return Counter.builder("kite.http.connections.acquired")
+            .description("Connections used by Kite HTTP calls, by whether they came from the pool")
+            .tag("connection", connection)
+            .register(registry);
+    }
+
+    private static Timer phase(MeterRegistry registry, String phase) {
+        return Timer.builder("kite.http.connection.setup")
+            .description("Time spent setting up new connections to Kite, by phase")
+            .tag("phase", phase)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    // One instance per call; OkHttp delivers a call's events sequentially
+    private final class Listener extends EventListener {
+        private long dnsStartNanos;
+        private long connectStartNanos;
+        private long tlsStartNanos;
+        private boolean connecting;
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> addresses) {
+            dns.record(System.nanoTime() - dnsStartNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connecting = true;
+            connectStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            tlsStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            tlsHandshake.record(System.nanoTime() - tlsStartNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+            connect.record(System.nanoTime() - connectStartNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol,
+                                  IOException e) {
+            failed.increment();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            (connecting ? opened : reused).increment();
+            connecting = false;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.kartikhub.config;
+
+import io.github.kartikhub.service.KiteDeadline;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shortens connect, read and write timeouts of a Kite request to what is left of the calling
+ * request's {@link KiteDeadline}, so the SDK's blocking call returns when the MCP request times out.
+ */
+public class KiteDeadlineInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        long remainingNanos = KiteDeadline.remainingNanos();
+        if (remainingNanos == Long.MAX_VALUE) {
+            return chain.proceed(chain.request());
+        }
+        if (remainingNanos <= 0) {
+            throw new InterruptedIOException("Request deadline passed before calling " + chain.request().url().encodedPath());
+        }
+        int remainingMillis = (int) Math.max(1, Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+        Chain bounded = chain
+            .withConnectTimeout(cap(chain.connectTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS)
+            .withReadTimeout(cap(chain.readTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS)
+            .withWriteTimeout(cap(chain.writeTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS);
+        return bounded.proceed(bounded.request());
+    }
+
+    // OkHttp uses 0 for "no timeout"
+    private static int cap(int timeoutMillis, int remainingMillis) {
+        return timeoutMillis == 0 ? remainingMillis : Math.min(timeoutMillis, remainingMillis);
+    }
+}
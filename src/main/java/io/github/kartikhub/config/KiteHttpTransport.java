@@ -0,0 +1,88 @@
+package io.github.kartikhub.config;
+
+import com.zerodhatech.kiteconnect.KiteConnect;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Shares a single OkHttp client between {@link KiteConnect} instances.
+ * <p>
+ * The Kite SDK builds a private OkHttp client (and with it a private connection pool) for every
+ * {@code KiteConnect} it creates and offers no way to pass one in. Since access tokens are sent per
+ * request rather than stored on the HTTP client, the client can safely be swapped for a shared one,
+ * which lets per-session clients reuse the same pooled connections.
+ */
+@Slf4j
+public class KiteHttpTransport {
+    private static final Field REQUEST_HANDLER_FIELD = findRequestHandlerField();
+    private static final Field HTTP_CLIENT_FIELD = REQUEST_HANDLER_FIELD == null
+        ? null : findField(REQUEST_HANDLER_FIELD.getType(), OkHttpClient.class);
+
+    private final OkHttpClient httpClient;
+
+    public KiteHttpTransport(OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Points the given client at the shared HTTP client. Falls back to the SDK's own client
+     * if the SDK internals could not be resolved.
+     */
+    public KiteConnect attach(KiteConnect kiteConnect) {
+        if (httpClient == null || HTTP_CLIENT_FIELD == null) {
+            return kiteConnect;
+        }
+        try {
+            HTTP_CLIENT_FIELD.set(REQUEST_HANDLER_FIELD.get(kiteConnect), httpClient);
+        } catch (IllegalAccessException e) {
+            log.warn("Could not attach shared HTTP client to KiteConnect: {}", e.getMessage());
+        }
+        return kiteConnect;
+    }
+
+    /**
+     * Returns the OkHttp client the SDK built for the given KiteConnect, or {@code null} if it could not be resolved.
+     */
+    public static OkHttpClient httpClientOf(KiteConnect kiteConnect) {
+        if (HTTP_CLIENT_FIELD == null) {
+            return null;
+        }
+        try {
+            return (OkHttpClient) HTTP_CLIENT_FIELD.get(REQUEST_HANDLER_FIELD.get(kiteConnect));
+        } catch (IllegalAccessException e) {
+            log.warn("Could not read HTTP client from KiteConnect: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Field findRequestHandlerField() {
+        for (Field field : KiteConnect.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                continue;
+            }
+            if (findField(field.getType(), OkHttpClient.class) != null) {
+                field.setAccessible(true);
+                return field;
+            }
+        }
+        log.warn("KiteConnect request handler not found; Kite clients will not share HTTP connections");
+        return null;
+    }
+
+    private static Field findField(Class<?> owner, Class<?> type) {
+        for (Field field : owner.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && field.getType() == type) {
+                field.setAccessible(true);
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.kartikhub.config;
+
+import io.github.kartikhub.session.SessionCluster;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Forwards MCP messages that reach a node other than the one holding the client's SSE stream.
+ * <p>
+ * The MCP transport keeps SSE sessions in memory, so a message posted to the wrong node would be
+ * answered with 404. When a node opens an SSE stream, the message endpoint it announces gains a
+ * {@code node} parameter naming that node, and clients post every message of the session to that URL
+ * as given. A message for another node is then forwarded once, straight to that node, within
+ * {@code kite.cluster.request-timeout}; the reply itself goes out over the SSE stream there. Messages
+ * are small, so they are buffered in full.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kite.cluster", name = "enabled", havingValue = "true")
+public class McpMessageForwardingFilter extends OncePerRequestFilter {
+    private static final String NODE_PARAMETER = "node";
+    private static final String SESSION_QUERY = "?sessionId=";
+
+    private final SessionCluster cluster;
+    private final String sseEndpoint;
+    private final String messageEndpoint;
+
+    public McpMessageForwardingFilter(SessionCluster cluster,
+                                      @Value("${spring.ai.mcp.server.sse-endpoint:/sse}") String sseEndpoint,
+                                      @Value("${spring.ai.mcp.server.sse-message-endpoint:/mcp/message}") String messageEndpoint) {
+        this.cluster = cluster;
+        this.sseEndpoint = sseEndpoint;
+        this.messageEndpoint = messageEndpoint;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(SessionCluster.FORWARDED_HEADER) != null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !("GET".equals(request.getMethod()) && sseEndpoint.equals(path))
+            && !("POST".equals(request.getMethod()) && messageEndpoint.equals(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        if ("GET".equals(request.getMethod())) {
+            String marker = "?" + NODE_PARAMETER + "=" + cluster.idOf(cluster.getSelf()) + "&sessionId=";
+            chain.doFilter(request, new EndpointTaggingResponse(response, marker));
+            return;
+        }
+
+        // Only the query string is read, so the JSON body is left for the transport
+        String owner = cluster.nodeById(request.getParameter(NODE_PARAMETER));
+        if (owner == null || cluster.isSelf(owner)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String pathAndQuery = messageEndpoint + "?" + request.getQueryString();
+        HttpResponse<byte[]> forwarded;
+        try {
+            forwarded = cluster.forward(owner, "POST", pathAndQuery, body, request.getContentType(),
+                                        cluster.getRequestTimeout()).join();
+        } catch (CompletionException e) {
+            // The SSE stream lives on the owner, so the transport here answers that the session is unknown
+            log.warn("Could not forward MCP message to {}: {}", owner, e.getMessage());
+            chain.doFilter(new BufferedRequest(request, body), response);
+            return;
+        }
+        log.debug("Forwarded MCP message for {} to {}", request.getQueryString(), owner);
+        response.setStatus(forwarded.statusCode());
+        forwarded.headers().firstValue("Content-Type").ifPresent(response::setContentType);
+        response.getOutputStream().write(forwarded.body());
+    }
+
+    /**
+     * Adds this node to the message endpoint in the stream's first event, which announces it.
+     */
+    private static final class EndpointTaggingResponse extends HttpServletResponseWrapper {
+        private final String marker;
+        private ServletOutputStream out;
+
+        EndpointTaggingResponse(HttpServletResponse response, String marker) {
+            super(response);
+            this.marker = marker;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (out == null) {
+                ServletOutputStream target = super.getOutputStream();
+                out = new ServletOutputStream() {
+                    private boolean tagged;
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] buffer, int offset, int length) throws IOException {
+                        if (!tagged) {
+                            // The endpoint event is written in one piece before anything else on the stream
+                            String event = new String(buffer, offset, length, StandardCharsets.UTF_8);
+                            if (event.contains(SESSION_QUERY)) {
+                                tagged = true;
+                                target.write(event.replace(SESSION_QUERY, marker).getBytes(StandardCharsets.UTF_8));
+                                return;
+                            }
+                        }
+                        target.write(buffer, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        target.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+                };
+            }
+            return out;
+        }
+    }
+
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        BufferedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Buffered request body is read synchronously");
+                }
+            };
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.kartikhub.config;
+
+import io.github.kartikhub.service.KiteCallGuard;
+import io.github.kartikhub.service.KiteEndpoint;
+import io.github.kartikhub.service.KiteRateLimiter;
+import io.github.kartikhub.service.KiteTickerHub;
+import io.github.kartikhub.session.KiteSessionManager;
+import io.github.kartikhub.session.SessionCluster;
+import io.github.kartikhub.session.SessionReplicator;
+import io.github.kartikhub.tool.ToolNotifier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import okhttp3.ConnectionPool;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges and counters read from existing components at scrape time.
+ * Request-path timers live in {@link io.github.kartikhub.service.KiteMetrics} and {@link KiteConnectionMetrics}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder kiteSessionMetrics(KiteSessionManager sessionManager) {
+        return registry -> {
+            Gauge.builder("kite.sessions", sessionManager, KiteSessionManager::getSessionCount)
+                .description("Client sessions by state")
+                .tag("state", "active")
+                .register(registry);
+            Gauge.builder("kite.sessions", sessionManager, KiteSessionManager::getAuthenticatedSessionCount)
+                .description("Client sessions by state")
+                .tag("state", "authenticated")
+                .register(registry);
+            Gauge.builder("kite.sessions", sessionManager,
+                    manager -> manager.getSessionCount() - manager.getAuthenticatedSessionCount())
+                .description("Client sessions by state")
+                .tag("state", "pending")
+                .register(registry);
+            Gauge.builder("kite.token.mappings", sessionManager, KiteSessionManager::getTokenMappingCount)
+                .description("Request token mappings awaiting the OAuth callback")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder kiteRateLimiterMetrics(KiteRateLimiter rateLimiter) {
+        return registry -> {
+            FunctionCounter.builder("kite.ratelimit.requests", rateLimiter, limiter -> limiter.stats().immediate())
+                .description("Kite calls passed through the rate limiter by result")
+                .tag("result", "immediate")
+                .register(registry);
+            FunctionCounter.builder("kite.ratelimit.requests", rateLimiter, limiter -> limiter.stats().delayed())
+                .description("Kite calls passed through the rate limiter by result")
+                .tag("result", "delayed")
+                .register(registry);
+            FunctionCounter.builder("kite.ratelimit.requests", rateLimiter, limiter -> limiter.stats().rejected())
+                .description("Kite calls passed through the rate limiter by result")
+                .tag("result", "rejected")
+                .register(registry);
+            FunctionCounter.builder("kite.ratelimit.wait.seconds", rateLimiter,
+                    limiter -> limiter.stats().totalWaitNanos() / 1e9)
+                .description("Total time callers spent waiting for a rate limit slot")
+                .register(registry);
+            Gauge.builder("kite.ratelimit.queued", rateLimiter, limiter -> limiter.stats().queued())
+                .description("Callers currently waiting for a rate limit slot")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder kiteTickerMetrics(KiteTickerHub tickerHub) {
+        return registry -> {
+            Gauge.builder("kite.ticker.connections", tickerHub, KiteTickerHub::getConnectionCount)
+                .description("Open Kite ticker WebSocket connections, one per user")
+                .register(registry);
+            Gauge.builder("kite.ticker.subscriptions", tickerHub, KiteTickerHub::getSubscriptionCount)
+                .description("Instruments subscribed across all ticker connections")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder mcpNotificationMetrics(ToolNotifier notifier) {
+        return registry -> FunctionCounter.builder("mcp.notifications.dropped", notifier, ToolNotifier::getDroppedCount)
+            .description("MCP logging notifications dropped because a client's queue was full")
+            .register(registry);
+    }
+
+    @Bean
+    public MeterBinder kiteResilienceMetrics(KiteCallGuard callGuard) {
+        return registry -> {
+            for (KiteEndpoint endpoint : KiteEndpoint.values()) {
+                Gauge.builder("kite.circuit.state", callGuard, guard -> guard.getState(endpoint).ordinal())
+                    .description("Circuit breaker state per endpoint: 0 closed, 1 open, 2 half-open")
+                    .tag("endpoint", endpoint.key())
+                    .register(registry);
+            }
+            FunctionCounter.builder("kite.resilience.attempts", callGuard, guard -> guard.stats().retries())
+                .description("Extra upstream attempts made by the resilience layer by kind")
+                .tag("kind", "retry")
+                .register(registry);
+            FunctionCounter.builder("kite.resilience.attempts", callGuard, guard -> guard.stats().hedges())
+                .description("Extra upstream attempts made by the resilience layer by kind")
+                .tag("kind", "hedge")
+                .register(registry);
+            FunctionCounter.builder("kite.circuit.rejected", callGuard, guard -> guard.stats().rejected())
+                .description("Calls failed fast because an endpoint's circuit was open")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder kiteHttpPoolMetrics(KiteHttpTransport transport) {
+        return registry -> {
+            if (transport.getHttpClient() == null) {
+                return;
+            }
+            ConnectionPool pool = transport.getHttpClient().connectionPool();
+            Gauge.builder("kite.http.pool.connections", pool, p -> p.connectionCount() - p.idleConnectionCount())
+                .description("Connections in the shared Kite HTTP pool by state")
+                .tag("state", "active")
+                .register(registry);
+            Gauge.builder("kite.http.pool.connections", pool, ConnectionPool::idleConnectionCount)
+                .description("Connections in the shared Kite HTTP pool by state")
+                .tag("state", "idle")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "kite.cluster", name = "enabled", havingValue = "true")
+    public MeterBinder kiteClusterMetrics(SessionCluster cluster, SessionReplicator replicator) {
+        return registry -> {
+            Gauge.builder("kite.cluster.nodes", cluster, c -> c.getNodes().size())
+                .description("Nodes on the session hash ring, including this one")
+                .register(registry);
+            FunctionCounter.builder("kite.cluster.events.lost", replicator, SessionReplicator::getFailedCount)
+                .description("Session events not delivered to a peer by reason")
+                .tag("reason", "failed")
+                .register(registry);
+            FunctionCounter.builder("kite.cluster.events.lost", replicator, SessionReplicator::getDroppedCount)
+                .description("Session events not delivered to a peer by reason")
+                .tag("reason", "queue-full")
+                .register(registry);
+        };
+    }
+}
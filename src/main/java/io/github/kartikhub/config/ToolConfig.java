@@ -1,20 +1,147 @@
 package io.github.kartikhub.config;
 
+import io.github.kartikhub.diagnostics.Phase;
+import io.github.kartikhub.diagnostics.PhaseTimer;
+import io.github.kartikhub.diagnostics.PhaseTimers;
+import io.github.kartikhub.service.KiteCallExecutor;
+import io.github.kartikhub.service.KiteMetrics;
+import io.github.kartikhub.tool.HistoricalDataTool;
 import io.github.kartikhub.tool.HoldingsTool;
+import io.github.kartikhub.tool.InstrumentsTool;
+import io.github.kartikhub.tool.KiteToolResultConverter;
+import io.github.kartikhub.tool.LiveTicksTool;
 import io.github.kartikhub.tool.LoginTool;
+import io.github.kartikhub.tool.PortfolioAnalyticsTool;
+import io.github.kartikhub.tool.PortfolioSnapshotTool;
+import io.github.kartikhub.tool.QuotesTool;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures.AsyncToolSpecification;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
-import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.ai.tool.method.MethodToolCallback;
+import org.springframework.ai.tool.support.ToolDefinitions;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 @Configuration
 public class ToolConfig {
-    
+    static final String REQUEST_TIMEOUT = "${spring.ai.mcp.server.request-timeout:30s}";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+    public ToolCallbackProvider kiteTools(LoginTool loginTool, HoldingsTool holdingsTool,
+                                          PortfolioAnalyticsTool portfolioAnalyticsTool,
+                                          PortfolioSnapshotTool portfolioSnapshotTool, QuotesTool quotesTool,
+                                          InstrumentsTool instrumentsTool, LiveTicksTool liveTicksTool,
+                                          HistoricalDataTool historicalDataTool,
+                                          KiteMetrics metrics, KiteToolResultConverter resultConverter,
+                                          PhaseTimers phaseTimers, @Value(REQUEST_TIMEOUT) Duration requestTimeout) {
+        ToolCallback[] callbacks = kiteToolCallbacks(metrics, resultConverter, phaseTimers, requestTimeout, loginTool,
+            holdingsTool, portfolioAnalyticsTool, portfolioSnapshotTool, quotesTool, instrumentsTool, liveTicksTool,
+            historicalDataTool);
+        return () -> callbacks;
+    }
+
+    /**
+     * ASYNC server mode: exposes the same tools as async specifications. Each invocation runs on the
+     * Kite call executor and completes a {@link Mono}, so no servlet or reactor thread waits on Kite.
+     * The wait for an executor thread is timed as the {@link Phase#DISPATCH} phase.
+     */
     @Bean
-    public ToolCallbackProvider kiteTools(LoginTool loginTool, HoldingsTool holdingsTool) {
-        return MethodToolCallbackProvider.builder()
-            .toolObjects(loginTool, holdingsTool)
-            .build();
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public List<AsyncToolSpecification> kiteAsyncTools(LoginTool loginTool, HoldingsTool holdingsTool,
+                                                      PortfolioAnalyticsTool portfolioAnalyticsTool,
+                                                      PortfolioSnapshotTool portfolioSnapshotTool, QuotesTool quotesTool,
+                                                      InstrumentsTool instrumentsTool, LiveTicksTool liveTicksTool,
+                                                      HistoricalDataTool historicalDataTool,
+                                                      KiteMetrics metrics, KiteToolResultConverter resultConverter,
+                                                      PhaseTimers phaseTimers, KiteCallExecutor callExecutor,
+                                                      ObjectMapper objectMapper,
+                                                      @Value(REQUEST_TIMEOUT) Duration requestTimeout) {
+        return Arrays.stream(kiteToolCallbacks(metrics, resultConverter, phaseTimers, requestTimeout, loginTool,
+                holdingsTool, portfolioAnalyticsTool, portfolioSnapshotTool, quotesTool, instrumentsTool,
+                liveTicksTool, historicalDataTool))
+            .map(callback -> toAsyncToolSpecification(callback, callExecutor, phaseTimers, objectMapper))
+            .toList();
+    }
+
+    private static ToolCallback[] kiteToolCallbacks(KiteMetrics metrics, KiteToolResultConverter resultConverter,
+                                                    PhaseTimers phaseTimers, Duration requestTimeout,
+                                                    Object... toolObjects) {
+        // Built per @Tool method rather than through MethodToolCallbackProvider, which can only create
+        // result converters reflectively and so could not hand them the configured serializer
+        return Arrays.stream(toolObjects)
+            .flatMap(toolObject -> Arrays.stream(ReflectionUtils.getDeclaredMethods(AopUtils.getTargetClass(toolObject)))
+                .filter(method -> method.isAnnotationPresent(Tool.class))
+                .map(method -> MethodToolCallback.builder()
+                    .toolDefinition(ToolDefinitions.from(method))
+                    .toolMetadata(ToolMetadata.from(method))
+                    .toolMethod(method)
+                    .toolObject(toolObject)
+                    .toolCallResultConverter(resultConverter)
+                    .build()))
+            .map(callback -> new InstrumentedToolCallback(callback, metrics, requestTimeout, phaseTimers))
+            .toArray(ToolCallback[]::new);
+    }
+
+    private static AsyncToolSpecification toAsyncToolSpecification(ToolCallback callback, KiteCallExecutor callExecutor,
+                                                                   PhaseTimers phaseTimers, ObjectMapper objectMapper) {
+        ToolDefinition definition = callback.getToolDefinition();
+        McpSchema.Tool tool = new McpSchema.Tool(definition.name(), definition.description(), definition.inputSchema());
+
+        return new AsyncToolSpecification(tool, (McpAsyncServerExchange exchange, Map<String, Object> arguments) ->
+            Mono.fromFuture(() -> {
+                    String sessionId = arguments.get("sessionId") instanceof String id ? id : null;
+                    PhaseTimer dispatched = phaseTimers.start(Phase.DISPATCH);
+                    try {
+                        return callExecutor.submit(() -> {
+                            dispatched.stop(sessionId, definition.name());
+                            // Tools keep using the sync exchange API; notifications are delivered through the async exchange
+                            ToolContext context = new ToolContext(
+                                Map.of(McpToolUtils.TOOL_CONTEXT_MCP_EXCHANGE_KEY, new McpSyncServerExchange(exchange)));
+                            return callback.call(toJson(objectMapper, arguments), context);
+                        });
+                    } catch (RuntimeException e) {
+                        // Rejected by the executor; the wait still counts
+                        dispatched.stop(sessionId, definition.name());
+                        throw e;
+                    }
+                })
+                .map(result -> new CallToolResult(List.of(new TextContent(result)), false))
+                .onErrorResume(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    return Mono.just(new CallToolResult(List.of(new TextContent(cause.getMessage())), true));
+                }));
+    }
+
+    private static String toJson(ObjectMapper objectMapper, Map<String, Object> arguments) {
+        try {
+            return objectMapper.writeValueAsString(arguments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid tool arguments: " + e.getMessage(), e);
+        }
     }
 }
@@ -0,0 +1,28 @@
+package io.github.kartikhub.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Puts Reactor's bounded-elastic scheduler on virtual threads when {@code spring.threads.virtual.enabled}
+ * is set.
+ * <p>
+ * In SYNC server mode the MCP SDK runs each tool on {@code Schedulers.boundedElastic()}, which otherwise
+ * uses platform threads capped at ten per core; only the servlet thread waiting for the result would be
+ * virtual. Reactor reads the switch once, when {@code Schedulers} is first loaded, so it is set as soon as
+ * the environment is known and before any scheduler exists.
+ */
+@Slf4j
+public class VirtualThreadSchedulers implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+    static final String BOUNDED_ELASTIC_ON_VIRTUAL_THREADS = "reactor.schedulers.defaultBoundedElasticOnVirtualThreads";
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        boolean virtualThreads = event.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (virtualThreads && System.getProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS) == null) {
+            log.info("Running blocking tool invocations on virtual threads");
+            System.setProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS, "true");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.kartikhub.controller;
+
+import io.github.kartikhub.session.SessionCluster;
+import io.github.kartikhub.session.SessionReplicator;
+import io.github.kartikhub.session.SessionReplicator.SessionEvent;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Node-to-node endpoints for clustered sessions. Only requests signed with the cluster secret are accepted.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "kite.cluster", name = "enabled", havingValue = "true")
+public class ClusterController {
+    private static final TypeReference<List<SessionEvent>> EVENT_LIST = new TypeReference<>() {
+    };
+
+    private final SessionCluster cluster;
+    private final SessionReplicator replicator;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(SessionReplicator.EVENTS_PATH)
+    public ResponseEntity<Void> receiveEvents(HttpServletRequest request, @RequestBody byte[] body) throws IOException {
+        if (!verified(request, body)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        List<SessionEvent> events = objectMapper.readValue(body, EVENT_LIST);
+        log.debug("Applying {} session events from {}", events.size(), request.getHeader(SessionCluster.NODE_HEADER));
+        replicator.apply(events);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping(SessionReplicator.SNAPSHOT_PATH)
+    public ResponseEntity<List<SessionEvent>> snapshot(HttpServletRequest request) {
+        if (!verified(request, new byte[0])) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Sending session snapshot to {}", request.getHeader(SessionCluster.NODE_HEADER));
+        return ResponseEntity.ok(replicator.snapshot());
+    }
+
+    private boolean verified(HttpServletRequest request, byte[] body) {
+        boolean valid = cluster.verify(request.getMethod(), request.getRequestURI(),
+            request.getHeader(SessionCluster.TIMESTAMP_HEADER), request.getHeader(SessionCluster.SIGNATURE_HEADER), body);
+        if (!valid) {
+            log.warn("Rejected unsigned or stale cluster request to {} from {}", request.getRequestURI(),
+                     request.getRemoteAddr());
+        }
+        return valid;
+    }
+}
@@ -1,46 +1,128 @@
 package io.github.kartikhub.controller;
 
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.service.KiteCallExecutor;
+import io.github.kartikhub.service.KiteDeadline;
 import io.github.kartikhub.service.KiteService;
 import io.github.kartikhub.session.KiteSessionManager;
+import io.github.kartikhub.session.SessionCluster;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Controller
 @RequiredArgsConstructor
 public class KiteCallbackController {
+    private static final String SUCCESS_PAGE = "/success.html";
+    private static final String SUCCESS_VIEW = "redirect:" + SUCCESS_PAGE;
+    private static final String ERROR_VIEW = "redirect:/error.html";
+    // Extra time the page waits beyond the login deadline, so a login that finishes in time is never shown as failed
+    private static final Duration RESPONSE_MARGIN = Duration.ofSeconds(5);
+
     private final KiteService kiteService;
     private final KiteSessionManager sessionManager;
+    private final KiteCallExecutor callExecutor;
+    private final KiteProperties kiteProperties;
+    private final ObjectProvider<SessionCluster> cluster;
 
+    /**
+     * Completes the login asynchronously: the token exchange runs on the Kite call executor under
+     * {@code kite.login.callback-timeout}, counted from the callback's arrival, so no servlet thread waits
+     * on Kite. The response itself waits a little longer than that deadline, so the login always decides
+     * the page. Once the session is authenticated, the user's portfolio is prefetched into the response cache.
+     * <p>
+     * In clustered mode a callback for a session owned by another node is forwarded there, and handled
+     * here only if the owner cannot be reached.
+     */
     @GetMapping("/callback")
-    public String handleCallback(
+    public DeferredResult<String> handleCallback(
         @RequestParam("request_token") String requestToken,
         @RequestParam("client_session") String clientSessionId,
         @RequestParam("status") String status,
-        @RequestParam(value = "type", defaultValue = "login") String type
+        @RequestParam(value = "type", defaultValue = "login") String type,
+        HttpServletRequest request
     ) {
-        try {
-            if (!"success".equals(status)) {
-                log.error("Login failed with status: {}", status);
-                return "redirect:/error.html";
-            }
-
-            log.debug("Received callback with requestToken: {}, clientSessionId: {}, type: {}, status: {}",
-                     requestToken, clientSessionId, type, status);
-
-            // Update the session mapping with the request token
-            sessionManager.storeTokenMapping(requestToken, clientSessionId);
-
-            // Generate the session
-            kiteService.generateSession(clientSessionId, requestToken);
-            
-            return "redirect:/success.html";
-        } catch (Exception e) {
-            log.error("Error in callback: {}", e.getMessage(), e);
-            return "redirect:/error.html";
+        KiteProperties.Login config = kiteProperties.getLogin();
+        Duration timeout = config.getCallbackTimeout();
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        SessionCluster sessionCluster = cluster.getIfAvailable();
+        String owner = sessionCluster == null || request.getHeader(SessionCluster.FORWARDED_HEADER) != null
+            ? null : sessionCluster.ownerOf(clientSessionId);
+        boolean local = owner == null || sessionCluster.isSelf(owner);
+        // A forwarded login also waits out the owner's own margin before any fallback here
+        Duration responseTimeout = timeout.plus(local ? RESPONSE_MARGIN : RESPONSE_MARGIN.multipliedBy(2));
+        DeferredResult<String> result = new DeferredResult<>(responseTimeout.toMillis(), ERROR_VIEW);
+        result.onTimeout(() -> log.error("Timed out completing Kite login for client session {}", clientSessionId));
+
+        if (!"success".equals(status)) {
+            log.error("Login failed with status: {}", status);
+            result.setResult(ERROR_VIEW);
+            return result;
         }
+
+        log.debug("Received callback with requestToken: {}, clientSessionId: {}, type: {}, status: {}",
+                 requestToken, clientSessionId, type, status);
+
+        if (local) {
+            completeLogin(requestToken, clientSessionId, deadline, result);
+            return result;
+        }
+
+        log.debug("Forwarding callback for client session {} to owner {}", clientSessionId, owner);
+        sessionCluster.forward(owner, "GET", "/callback?" + request.getQueryString(), null, null,
+                               timeout.plus(RESPONSE_MARGIN))
+            .whenComplete((response, error) -> {
+                if (error != null) {
+                    log.warn("Owner {} of client session {} is unreachable, completing login here: {}",
+                             owner, clientSessionId, error.getMessage());
+                    completeLogin(requestToken, clientSessionId, deadline, result);
+                    return;
+                }
+                boolean succeeded = response.headers().firstValue("Location")
+                    .filter(location -> location.endsWith(SUCCESS_PAGE))
+                    .isPresent();
+                result.setResult(succeeded ? SUCCESS_VIEW : ERROR_VIEW);
+            });
+        return result;
+    }
+
+    private void completeLogin(String requestToken, String clientSessionId, long deadline,
+                               DeferredResult<String> result) {
+        // Update the session mapping with the request token
+        sessionManager.storeTokenMapping(requestToken, clientSessionId);
+
+        // Generate the session
+        // Time spent queued for the executor or on a failed forward comes out of the same deadline
+        callExecutor.submit(() -> KiteDeadline.within(Duration.ofNanos(deadline - System.nanoTime()), () -> {
+                kiteService.generateSession(clientSessionId, requestToken);
+                return SUCCESS_VIEW;
+            }))
+            .whenComplete((view, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                    log.error("Error in callback: {}", cause.getMessage(), cause);
+                    result.setResult(ERROR_VIEW);
+                    return;
+                }
+                if (kiteProperties.getLogin().isPrewarm()) {
+                    // Started before the redirect so the agent's first call can join the in-flight fetches
+                    kiteService.prewarm(clientSessionId);
+                }
+                if (!result.setResult(view)) {
+                    log.warn("Kite login for client session {} completed after its callback page timed out",
+                             clientSessionId);
+                }
+            });
     }
 }
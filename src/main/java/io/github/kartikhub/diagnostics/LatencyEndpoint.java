@@ -0,0 +1,29 @@
+package io.github.kartikhub.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/latency}: where tool calls spent their time over the last histogram window, per phase.
+ */
+@Component
+@Endpoint(id = "latency")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "kite.diagnostics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LatencyEndpoint {
+    private final PhaseHistogram histogram;
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("window", histogram.getWindow().toString());
+        result.put("phases", histogram.snapshot());
+        return result;
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.kartikhub.diagnostics;
+
+import java.util.function.Supplier;
+
+/**
+ * Phases of an MCP tool call that are timed separately.
+ */
+public enum Phase {
+    TOOL("tool", PhaseEvent.ToolCall::new),
+    DISPATCH("dispatch", PhaseEvent.DispatchWait::new),
+    SESSION("session", PhaseEvent.SessionValidation::new),
+    QUEUE("queue", PhaseEvent.QueueWait::new),
+    UPSTREAM("upstream", PhaseEvent.UpstreamCall::new),
+    SERIALIZATION("serialization", PhaseEvent.Serialization::new),
+    NOTIFICATION("notification", PhaseEvent.Notification::new);
+
+    private final String key;
+    private final Supplier<PhaseEvent> factory;
+    // Only asked whether its event type is enabled; never committed
+    private final PhaseEvent probe;
+
+    Phase(String key, Supplier<PhaseEvent> factory) {
+        this.key = key;
+        this.factory = factory;
+        this.probe = factory.get();
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /**
+     * A new event for this phase, or {@code null} when no recording has the event type enabled.
+     */
+    PhaseEvent newEvent() {
+        return probe.isEnabled() ? factory.get() : null;
+    }
+}
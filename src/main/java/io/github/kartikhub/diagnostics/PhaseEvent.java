@@ -0,0 +1,66 @@
+package io.github.kartikhub.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder events for the phases of an MCP tool call, one event type per {@link Phase}.
+ * Created and committed by {@link PhaseTimer} only while the event type is enabled in a recording.
+ */
+@Category({"Kite MCP", "Tool Calls"})
+@StackTrace(false)
+public abstract class PhaseEvent extends Event {
+    @Label("Session")
+    @Description("Client session ID the work was done for")
+    String sessionId;
+
+    @Label("Operation")
+    @Description("Kite operation, or the tool name for tool-level phases")
+    String operation;
+
+    @Name("io.github.kartikhub.ToolCall")
+    @Label("Tool Call")
+    @Description("A whole MCP tool invocation, including serialization of its result")
+    public static final class ToolCall extends PhaseEvent {
+    }
+
+    @Name("io.github.kartikhub.DispatchWait")
+    @Label("Dispatch Wait")
+    @Description("Waiting for a Kite call executor thread before an ASYNC tool call starts")
+    public static final class DispatchWait extends PhaseEvent {
+    }
+
+    @Name("io.github.kartikhub.SessionValidation")
+    @Label("Session Validation")
+    @Description("Looking up and checking the client session")
+    public static final class SessionValidation extends PhaseEvent {
+    }
+
+    @Name("io.github.kartikhub.QueueWait")
+    @Label("Queue Wait")
+    @Description("Waiting for a rate limit slot and a concurrency permit before calling Kite")
+    public static final class QueueWait extends PhaseEvent {
+    }
+
+    @Name("io.github.kartikhub.UpstreamCall")
+    @Label("Upstream Call")
+    @Description("One HTTP call to the Kite API")
+    public static final class UpstreamCall extends PhaseEvent {
+    }
+
+    @Name("io.github.kartikhub.Serialization")
+    @Label("Result Serialization")
+    @Description("Encoding a tool result to JSON")
+    public static final class Serialization extends PhaseEvent {
+    }
+
+    @Name("io.github.kartikhub.Notification")
+    @Label("Notification Write")
+    @Description("Writing an MCP logging notification to the client's SSE stream")
+    public static final class Notification extends PhaseEvent {
+    }
+}
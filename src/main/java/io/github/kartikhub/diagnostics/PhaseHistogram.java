@@ -0,0 +1,144 @@
+package io.github.kartikhub.diagnostics;
+
+import io.github.kartikhub.properties.KiteProperties;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rolling latency histogram per {@link Phase}, covering the last {@code kite.diagnostics.window}.
+ * <p>
+ * The window is split into {@value #SLICES} slices of power-of-two microsecond buckets; a slice is
+ * cleared and reused once its time comes round again, so old measurements age out without a sweeper
+ * and recording is a couple of atomic adds. Percentiles are reported as the upper bound of the bucket
+ * they fall in, so they are accurate to within a factor of two.
+ */
+@Component
+@ConditionalOnProperty(prefix = "kite.diagnostics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PhaseHistogram {
+    private static final int SLICES = 6;
+    // Bucket i holds durations in [2^i, 2^(i+1)) microseconds; bucket 0 also takes anything shorter
+    private static final int BUCKETS = 28;
+    private static final int PHASES = Phase.values().length;
+
+    private final Duration window;
+    private final long sliceNanos;
+    private final Slice[] slices = new Slice[SLICES];
+
+    /**
+     * {@code buckets} maps each non-empty bucket's upper bound, e.g. {@code le_1024us}, to its count.
+     */
+    public record PhaseSummary(long count, double meanMillis, double p50Millis, double p90Millis, double p99Millis,
+                               Map<String, Long> buckets) {
+    }
+
+    private static final class Slice {
+        private volatile long epoch = Long.MIN_VALUE;
+        private final AtomicLongArray counts = new AtomicLongArray(PHASES * BUCKETS);
+        private final AtomicLongArray totalNanos = new AtomicLongArray(PHASES);
+    }
+
+    public PhaseHistogram(KiteProperties kiteProperties) {
+        this.window = kiteProperties.getDiagnostics().getWindow();
+        this.sliceNanos = Math.max(1, window.toNanos() / SLICES);
+        for (int i = 0; i < SLICES; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void record(Phase phase, long nanos) {
+        long epoch = Math.floorDiv(System.nanoTime(), sliceNanos);
+        Slice slice = slices[(int) Math.floorMod(epoch, SLICES)];
+        if (slice.epoch != epoch) {
+            rotate(slice, epoch);
+        }
+        slice.counts.incrementAndGet(phase.ordinal() * BUCKETS + bucket(nanos));
+        slice.totalNanos.addAndGet(phase.ordinal(), nanos);
+    }
+
+    /**
+     * Summaries of the phases seen within the window, keyed by {@link Phase#key()}.
+     */
+    public Map<String, PhaseSummary> snapshot() {
+        long current = Math.floorDiv(System.nanoTime(), sliceNanos);
+        long[][] counts = new long[PHASES][BUCKETS];
+        long[] totals = new long[PHASES];
+        for (Slice slice : slices) {
+            long epoch = slice.epoch;
+            if (epoch <= current - SLICES || epoch > current) {
+                continue;
+            }
+            for (int phase = 0; phase < PHASES; phase++) {
+                totals[phase] += slice.totalNanos.get(phase);
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    counts[phase][bucket] += slice.counts.get(phase * BUCKETS + bucket);
+                }
+            }
+        }
+
+        Map<String, PhaseSummary> summaries = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            long[] phaseCounts = counts[phase.ordinal()];
+            long count = 0;
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                if (phaseCounts[bucket] > 0) {
+                    count += phaseCounts[bucket];
+                    buckets.put("le_" + (1L << (bucket + 1)) + "us", phaseCounts[bucket]);
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+            summaries.put(phase.key(), new PhaseSummary(count, totals[phase.ordinal()] / 1e6 / count,
+                percentile(phaseCounts, count, 0.50), percentile(phaseCounts, count, 0.90),
+                percentile(phaseCounts, count, 0.99), buckets));
+        }
+        return summaries;
+    }
+
+    private static void rotate(Slice slice, long epoch) {
+        synchronized (slice) {
+            if (slice.epoch == epoch) {
+                return;
+            }
+            for (int i = 0; i < slice.counts.length(); i++) {
+                slice.counts.set(i, 0);
+            }
+            for (int i = 0; i < slice.totalNanos.length(); i++) {
+                slice.totalNanos.set(i, 0);
+            }
+            slice.epoch = epoch;
+        }
+    }
+
+    private static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        return micros < 2 ? 0 : Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static double percentile(long[] counts, long total, double quantile) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return upperBoundMillis(bucket);
+            }
+        }
+        return upperBoundMillis(BUCKETS - 1);
+    }
+
+    private static double upperBoundMillis(int bucket) {
+        return (1L << (bucket + 1)) / 1000.0;
+    }
+}
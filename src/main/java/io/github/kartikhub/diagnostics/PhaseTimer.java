@@ -0,0 +1,115 @@
+package io.github.kartikhub.diagnostics;
+
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Times one {@link Phase} of a tool call; started through {@link PhaseTimers}. Each measurement goes to
+ * the rolling {@link PhaseHistogram} and, while a Flight Recorder recording has the phase's event
+ * enabled, to a {@link PhaseEvent}. Without a recording no event is created, so a timer costs two
+ * {@code nanoTime} reads and a histogram update. Only the first stop counts, so a timer can be stopped
+ * both where its phase normally ends and in a {@code finally}.
+ * <p>
+ * {@link PhaseTimers#invocation} marks the tool call running on the current thread, so phases that do
+ * not know which tool or session they serve, such as serialization, can still be attributed to one.
+ */
+public final class PhaseTimer {
+    private static final Pattern SESSION_ID = Pattern.compile("\"sessionId\"\\s*:\\s*\"([^\"]*)\"");
+    private static final ThreadLocal<Invocation> INVOCATION = new ThreadLocal<>();
+
+    private final Phase phase;
+    // Null when diagnostics are disabled
+    private final PhaseHistogram histogram;
+    private final long startNanos;
+    // Null unless the event type was enabled when the phase started
+    private final PhaseEvent event;
+    private boolean stopped;
+
+    private record Invocation(String tool, String toolInput) {
+        String sessionId() {
+            Matcher matcher = SESSION_ID.matcher(toolInput);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+    }
+
+    PhaseTimer(Phase phase, PhaseHistogram histogram) {
+        this.phase = phase;
+        this.histogram = histogram;
+        this.event = phase.newEvent();
+        if (event != null) {
+            event.begin();
+        }
+        this.startNanos = System.nanoTime();
+    }
+
+    static <T> T invocation(PhaseHistogram histogram, String tool, String toolInput, Supplier<T> work) {
+        Invocation previous = INVOCATION.get();
+        Invocation current = new Invocation(tool, toolInput != null ? toolInput : "");
+        INVOCATION.set(current);
+        PhaseTimer timer = new PhaseTimer(Phase.TOOL, histogram);
+        try {
+            return work.get();
+        } finally {
+            timer.stop(current);
+            if (previous != null) {
+                INVOCATION.set(previous);
+            } else {
+                INVOCATION.remove();
+            }
+        }
+    }
+
+    /**
+     * Name of the tool being invoked on this thread, or {@code null} outside a tool call.
+     */
+    public static String currentTool() {
+        Invocation current = INVOCATION.get();
+        return current != null ? current.tool() : null;
+    }
+
+    public void stop(String sessionId, String operation) {
+        if (record() && event.shouldCommit()) {
+            event.sessionId = sessionId;
+            event.operation = operation;
+            event.commit();
+        }
+    }
+
+    /**
+     * Stops the timer, attributing the phase to the tool invocation running on this thread.
+     */
+    public void stop() {
+        stop(INVOCATION.get());
+    }
+
+    private void stop(Invocation invocation) {
+        if (record() && event.shouldCommit()) {
+            if (invocation != null) {
+                // Only parsed when the event is actually written
+                event.sessionId = invocation.sessionId();
+                event.operation = invocation.tool();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the elapsed time on the first stop; returns whether there is an event to finish.
+     */
+    private boolean record() {
+        if (stopped) {
+            return false;
+        }
+        stopped = true;
+        long elapsed = System.nanoTime() - startNanos;
+        if (histogram != null) {
+            histogram.record(phase, elapsed);
+        }
+        if (event == null) {
+            return false;
+        }
+        event.end();
+        return true;
+    }
+}
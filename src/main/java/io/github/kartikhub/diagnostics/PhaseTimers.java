@@ -0,0 +1,47 @@
+package io.github.kartikhub.diagnostics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Starts {@link PhaseTimer}s that record into the {@link PhaseHistogram} bean, or only emit Flight
+ * Recorder events when {@code kite.diagnostics.enabled} is off and there is no histogram.
+ */
+@Component
+public class PhaseTimers {
+    // Null when diagnostics are disabled
+    private final PhaseHistogram histogram;
+
+    @Autowired
+    public PhaseTimers(ObjectProvider<PhaseHistogram> histogram) {
+        this(histogram.getIfAvailable());
+    }
+
+    public PhaseTimers(PhaseHistogram histogram) {
+        this.histogram = histogram;
+    }
+
+    public PhaseTimer start(Phase phase) {
+        return new PhaseTimer(phase, histogram);
+    }
+
+    public <T> T time(Phase phase, String sessionId, String operation, Supplier<T> work) {
+        PhaseTimer timer = start(phase);
+        try {
+            return work.get();
+        } finally {
+            timer.stop(sessionId, operation);
+        }
+    }
+
+    /**
+     * Runs a tool invocation as a {@link Phase#TOOL} phase and makes it the current invocation for
+     * the phases it goes through on this thread.
+     */
+    public <T> T invocation(String tool, String toolInput, Supplier<T> work) {
+        return PhaseTimer.invocation(histogram, tool, toolInput, work);
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.kartikhub.exception;
+
+public class ConcurrencyLimitExceededException extends RateLimitExceededException {
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+
+    public ConcurrencyLimitExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.kartikhub.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+
+    public RateLimitExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
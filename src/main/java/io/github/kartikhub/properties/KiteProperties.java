@@ -2,6 +2,13 @@ package io.github.kartikhub.properties;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Data
 @ConfigurationProperties(prefix = "kite")
@@ -10,4 +17,200 @@ public class KiteProperties {
     private String apiSecret;
     private String userId;
     private String callbackUrl;
+    // Kite API root; point at a local stand-in for load testing
+    private String baseUrl = "https://api.kite.trade";
+    private Cache cache = new Cache();
+    private Execution execution = new Execution();
+    private SessionStore sessionStore = new SessionStore();
+    private RateLimit rateLimit = new RateLimit();
+    private Quotes quotes = new Quotes();
+    private Instruments instruments = new Instruments();
+    private Ticker ticker = new Ticker();
+    private Historical historical = new Historical();
+    private Notifications notifications = new Notifications();
+    private Serialization serialization = new Serialization();
+    private Resilience resilience = new Resilience();
+    private Login login = new Login();
+    private Cluster cluster = new Cluster();
+    private Http http = new Http();
+    private Diagnostics diagnostics = new Diagnostics();
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private int maxEntriesPerSession = 32;
+        private Duration defaultTtl = Duration.ofSeconds(15);
+        // Keyed by KiteEndpoint key, e.g. holdings
+        private Map<String, Duration> ttl = new HashMap<>();
+
+        public Duration ttlFor(String endpoint) {
+            return ttl.getOrDefault(endpoint, defaultTtl);
+        }
+    }
+
+    @Data
+    public static class Execution {
+        // Run Kite calls on virtual threads instead of the bounded platform pool below
+        private boolean virtualThreads = false;
+        // Threads available for Kite calls made through the async API
+        private int maxThreads = 64;
+        private int queueCapacity = 1000;
+        // Upper bound on concurrent upstream calls, keyed by KiteEndpoint key
+        private int defaultMaxConcurrentCalls = 50;
+        private Map<String, Integer> maxConcurrentCalls = new HashMap<>();
+        private Duration permitTimeout = Duration.ofSeconds(30);
+        // Per-call timeout for fan-out requests such as the portfolio snapshot, keyed by KiteEndpoint key
+        private Duration defaultCallTimeout = Duration.ofSeconds(10);
+        private Map<String, Duration> callTimeout = new HashMap<>();
+
+        public int maxConcurrentCallsFor(String endpoint) {
+            return maxConcurrentCalls.getOrDefault(endpoint, defaultMaxConcurrentCalls);
+        }
+
+        public Duration callTimeoutFor(String endpoint) {
+            return callTimeout.getOrDefault(endpoint, defaultCallTimeout);
+        }
+    }
+
+    @Data
+    public static class SessionStore {
+        private boolean enabled = false;
+        private String path = "data/sessions.journal";
+        private DataSize capacity = DataSize.ofMegabytes(16);
+        private Duration replayTimeout = Duration.ofSeconds(5);
+        private Duration compactionInterval = Duration.ofMinutes(10);
+        // Base64 AES key for access tokens at rest; derived from the API secret when empty
+        private String encryptionKey;
+    }
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        // Keyed by KiteEndpoint.RateCategory key; Kite's published per-second limits
+        private Map<String, Double> requestsPerSecond = new HashMap<>(Map.of(
+            "quote", 1.0, "historical", 3.0, "order", 10.0, "default", 10.0));
+        private int burst = 1;
+        // Callers beyond this many waiting per bucket are rejected instead of queued
+        private int maxQueuedRequests = 100;
+
+        public double requestsPerSecondFor(String category) {
+            return requestsPerSecond.getOrDefault(category, requestsPerSecond.getOrDefault("default", 10.0));
+        }
+    }
+
+    @Data
+    public static class Quotes {
+        // How long the first caller waits for other sessions' quote requests to join its batch
+        private Duration coalesceWindow = Duration.ofMillis(5);
+        // Quotes are shared across sessions and served from memory for this long
+        private Duration cacheTtl = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Instruments {
+        // Where the daily instrument files are kept; the newest one is reused at startup
+        private String directory = "data/instruments";
+        // Kite publishes the day's instrument dump shortly after 8 AM IST
+        private String refreshCron = "0 15 8 * * *";
+        private String zone = "Asia/Kolkata";
+        private int keepFiles = 2;
+    }
+
+    @Data
+    public static class Ticker {
+        // ltp, quote or full; applied to every instrument subscribed on a user's connection
+        private String mode = "quote";
+        // Most recent ticks kept per instrument
+        private int bufferSize = 64;
+        // Kite allows up to 3000 instruments per WebSocket connection
+        private int maxInstrumentsPerUser = 3000;
+        private int maxReconnectRetries = 50;
+        private int maxReconnectIntervalSeconds = 30;
+    }
+
+    @Data
+    public static class Historical {
+        // Candles for completed days are kept here, one file per instrument, interval and day
+        private String directory = "data/candles";
+        private String zone = "Asia/Kolkata";
+        // Upper bound on candles returned by one get_historical_data call
+        private int maxCandles = 5000;
+    }
+
+    @Data
+    public static class Notifications {
+        // Lowest MCP logging level sent to clients: debug, info, notice, warning, error, ...
+        private String level = "info";
+        // Deliver notifications off the request thread; false sends them inline
+        private boolean async = true;
+        // When an exchange has this many undelivered messages, the lowest-level one is dropped
+        private int maxPendingPerExchange = 64;
+    }
+
+    @Data
+    public static class Serialization {
+        // Reuse the encoded JSON of cached Kite model objects across tool calls
+        private boolean cacheEncoded = true;
+        private int maxCachedEntries = 10000;
+    }
+
+    @Data
+    public static class Resilience {
+        private boolean enabled = true;
+        // Per-endpoint circuit breaker: opens when failure-rate-threshold % of the last window-size calls failed
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private Duration openDuration = Duration.ofSeconds(30);
+        // Attempts per call for idempotent endpoints, with jittered exponential backoff between them
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(1);
+        // Race a second attempt once a read has run longer than the endpoint's recent p95 latency
+        private boolean hedging = false;
+        private int latencyWindowSize = 200;
+        private int minHedgeSamples = 20;
+    }
+
+    @Data
+    public static class Login {
+        // Longest the OAuth callback waits for the token exchange before showing the error page
+        private Duration callbackTimeout = Duration.ofSeconds(20);
+        // Fetch holdings, positions and margins into the response cache right after login
+        private boolean prewarm = true;
+    }
+
+    @Data
+    public static class Cluster {
+        private boolean enabled = false;
+        // Base URL peers use to reach this node; also its identity on the hash ring
+        private String selfUrl = "http://localhost:8080";
+        // Base URLs of all nodes; this node's own entry is skipped, so every node can share one list
+        private List<String> peers = new ArrayList<>();
+        private int virtualNodes = 128;
+        // HMAC key for node-to-node requests; derived from the API secret when empty
+        private String secret;
+        private Duration requestTimeout = Duration.ofSeconds(2);
+        // Replication events queued per peer before new ones are dropped
+        private int maxPendingEvents = 10000;
+    }
+
+    @Data
+    public static class Http {
+        // Idle connections kept open to the Kite API; sized to the concurrent call limit so bursts reuse them
+        private int maxIdleConnections = 50;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        private Duration writeTimeout = Duration.ofSeconds(10);
+        // Request gzip-encoded responses
+        private boolean compression = true;
+    }
+
+    @Data
+    public static class Diagnostics {
+        // Keep a rolling per-phase latency histogram of tool calls, served at /actuator/latency
+        private boolean enabled = true;
+        private Duration window = Duration.ofMinutes(1);
+    }
 }
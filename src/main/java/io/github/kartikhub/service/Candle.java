@@ -0,0 +1,9 @@
+package io.github.kartikhub.service;
+
+/**
+ * One OHLC candle. {@code oi} is open interest and is zero for instruments without it.
+ *
+ * @param timestamp candle start time, ISO-8601 with the exchange offset
+ */
+public record Candle(String timestamp, double open, double high, double low, double close, long volume, long oi) {
+}
@@ -0,0 +1,271 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.properties.KiteProperties;
+
+import com.zerodhatech.models.HistoricalData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * On-disk cache of historical candles that only asks Kite for what it does not have yet.
+ * <p>
+ * Candles are stored per instrument and interval in one small binary segment per trading day
+ * ({@code <directory>/<token>/<interval>/<yyyy-MM-dd>.bin}). A segment is written only for days that
+ * have ended, including days without candles (weekends, holidays), so its presence means the day is
+ * complete. A read works out which days in the range have no segment, fetches just those gaps (split
+ * into calls that respect Kite's per-interval range limits), stores them, and always fetches the
+ * current day live.
+ * <p>
+ * Segment layout: {@code int magic, int count}, then per candle {@code long epochMillis, double open,
+ * high, low, close, long volume, long oi}.
+ */
+@Slf4j
+@Component
+public class CandleStore {
+    private static final int MAGIC = 0x4B434E44; // "KCND"
+    private static final int HEADER_SIZE = 8;
+    private static final int CANDLE_SIZE = 56;
+    private static final DateTimeFormatter KITE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssZ");
+
+    // Longest range, in days, that Kite serves in one historical call for each interval
+    private static final Map<String, Integer> MAX_DAYS_PER_CALL = Map.of(
+        "minute", 60, "3minute", 100, "5minute", 100, "10minute", 100,
+        "15minute", 200, "30minute", 200, "60minute", 400, "day", 2000);
+
+    private final Path directory;
+    private final ZoneId zone;
+    // Held per instrument/interval while its gaps are filled, so concurrent requests do not fetch the same
+    // gap twice; entries are removed once no thread holds or waits for them
+    private final Map<Path, SeriesLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Performs one upstream historical call for the given range.
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+        HistoricalData fetch(ZonedDateTime from, ZonedDateTime to);
+    }
+
+    /**
+     * A ReentrantLock rather than a monitor: filling gaps makes Kite calls, which must not pin a virtual
+     * thread's carrier.
+     */
+    private static final class SeriesLock {
+        final ReentrantLock lock = new ReentrantLock();
+        // Threads holding or waiting for the lock; only changed inside the map's compute
+        int users;
+    }
+
+    private record StoredCandle(long epochMillis, double open, double high, double low, double close, long volume,
+                                long oi) {
+    }
+
+    public CandleStore(KiteProperties kiteProperties) {
+        KiteProperties.Historical config = kiteProperties.getHistorical();
+        this.directory = Path.of(config.getDirectory());
+        this.zone = ZoneId.of(config.getZone());
+    }
+
+    public static Set<String> intervals() {
+        return MAX_DAYS_PER_CALL.keySet();
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Candles of the instrument between {@code from} and {@code to} (inclusive), oldest first.
+     */
+    public List<Candle> read(long instrumentToken, String interval, boolean continuous, ZonedDateTime from,
+                             ZonedDateTime to, Fetcher fetcher) {
+        Integer maxDays = MAX_DAYS_PER_CALL.get(interval);
+        if (maxDays == null) {
+            throw new IllegalArgumentException("Unsupported interval '" + interval + "'. Supported: " + intervals());
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        Path series = directory.resolve(Long.toString(instrumentToken))
+            .resolve(continuous ? interval + "-continuous" : interval);
+        LocalDate firstDay = from.withZoneSameInstant(zone).toLocalDate();
+        LocalDate lastDay = to.withZoneSameInstant(zone).toLocalDate();
+        LocalDate today = LocalDate.now(zone);
+        LocalDate lastStoredDay = lastDay.isBefore(today) ? lastDay : today.minusDays(1);
+
+        List<StoredCandle> candles = new ArrayList<>();
+        if (!firstDay.isAfter(lastStoredDay)) {
+            // Reads whose days are all on disk never wait for another request's fetch
+            if (hasGaps(series, firstDay, lastStoredDay)) {
+                SeriesLock seriesLock = lock(series);
+                try {
+                    fillGaps(series, firstDay, lastStoredDay, maxDays, fetcher);
+                } finally {
+                    unlock(series, seriesLock);
+                }
+            }
+            for (LocalDate day = firstDay; !day.isAfter(lastStoredDay); day = day.plusDays(1)) {
+                candles.addAll(readSegment(segment(series, day)));
+            }
+        }
+        if (!lastDay.isBefore(today)) {
+            // The current day is still trading, so it is always fetched and never stored
+            LocalDate liveFrom = firstDay.isAfter(today) ? firstDay : today;
+            candles.addAll(convert(fetcher.fetch(liveFrom.atStartOfDay(zone), to)));
+        }
+
+        long fromMillis = from.toInstant().toEpochMilli();
+        long toMillis = to.toInstant().toEpochMilli();
+        List<Candle> result = new ArrayList<>(candles.size());
+        for (StoredCandle candle : candles) {
+            if (candle.epochMillis() >= fromMillis && candle.epochMillis() <= toMillis) {
+                result.add(new Candle(
+                    DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(Instant.ofEpochMilli(candle.epochMillis()).atZone(zone)),
+                    candle.open(), candle.high(), candle.low(), candle.close(), candle.volume(), candle.oi()));
+            }
+        }
+        return result;
+    }
+
+    private boolean hasGaps(Path series, LocalDate firstDay, LocalDate lastDay) {
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            if (!isStored(segment(series, day))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SeriesLock lock(Path series) {
+        SeriesLock seriesLock = locks.compute(series, (path, current) -> {
+            SeriesLock entry = current != null ? current : new SeriesLock();
+            entry.users++;
+            return entry;
+        });
+        seriesLock.lock.lock();
+        return seriesLock;
+    }
+
+    private void unlock(Path series, SeriesLock seriesLock) {
+        seriesLock.lock.unlock();
+        locks.computeIfPresent(series, (path, current) -> --current.users == 0 ? null : current);
+    }
+
+    private void fillGaps(Path series, LocalDate firstDay, LocalDate lastDay, int maxDays, Fetcher fetcher) {
+        LocalDate gapStart = null;
+        for (LocalDate day = firstDay; !day.isAfter(lastDay.plusDays(1)); day = day.plusDays(1)) {
+            boolean missing = !day.isAfter(lastDay) && !isStored(segment(series, day));
+            if (missing && gapStart == null) {
+                gapStart = day;
+            } else if (!missing && gapStart != null) {
+                fetchGap(series, gapStart, day.minusDays(1), maxDays, fetcher);
+                gapStart = null;
+            }
+        }
+    }
+
+    private void fetchGap(Path series, LocalDate first, LocalDate last, int maxDays, Fetcher fetcher) {
+        for (LocalDate chunkStart = first; !chunkStart.isAfter(last); chunkStart = chunkStart.plusDays(maxDays)) {
+            LocalDate chunkEnd = chunkStart.plusDays(maxDays - 1).isBefore(last) ? chunkStart.plusDays(maxDays - 1) : last;
+            log.debug("Fetching {} candles for {} to {}", series, chunkStart, chunkEnd);
+            List<StoredCandle> fetched = convert(fetcher.fetch(chunkStart.atStartOfDay(zone),
+                chunkEnd.plusDays(1).atStartOfDay(zone).minusSeconds(1)));
+
+            Map<LocalDate, List<StoredCandle>> byDay = new HashMap<>();
+            for (StoredCandle candle : fetched) {
+                byDay.computeIfAbsent(Instant.ofEpochMilli(candle.epochMillis()).atZone(zone).toLocalDate(),
+                    day -> new ArrayList<>()).add(candle);
+            }
+            for (LocalDate day = chunkStart; !day.isAfter(chunkEnd); day = day.plusDays(1)) {
+                writeSegment(segment(series, day), byDay.getOrDefault(day, List.of()));
+            }
+        }
+    }
+
+    private Path segment(Path series, LocalDate day) {
+        return series.resolve(day + ".bin");
+    }
+
+    private static boolean isStored(Path segment) {
+        try {
+            long size = Files.size(segment);
+            return size >= HEADER_SIZE && (size - HEADER_SIZE) % CANDLE_SIZE == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static List<StoredCandle> readSegment(Path segment) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a candle segment");
+            }
+            int count = buffer.getInt();
+            List<StoredCandle> candles = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                candles.add(new StoredCandle(buffer.getLong(), buffer.getDouble(), buffer.getDouble(),
+                    buffer.getDouble(), buffer.getDouble(), buffer.getLong(), buffer.getLong()));
+            }
+            return candles;
+        } catch (IOException | RuntimeException e) {
+            // Dropping the segment makes the next read fetch the day again
+            log.warn("Discarding unreadable candle segment {}: {}", segment, e.getMessage());
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException ignored) {
+                // Best effort; the segment will be overwritten on the next fetch
+            }
+            return List.of();
+        }
+    }
+
+    private static void writeSegment(Path segment, List<StoredCandle> candles) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + candles.size() * CANDLE_SIZE);
+        buffer.putInt(MAGIC).putInt(candles.size());
+        for (StoredCandle candle : candles) {
+            buffer.putLong(candle.epochMillis()).putDouble(candle.open()).putDouble(candle.high())
+                .putDouble(candle.low()).putDouble(candle.close()).putLong(candle.volume()).putLong(candle.oi());
+        }
+        try {
+            Files.createDirectories(segment.getParent());
+            Path staging = segment.resolveSibling(segment.getFileName() + ".tmp");
+            Files.write(staging, buffer.array());
+            Files.move(staging, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store candle segment " + segment, e);
+        }
+    }
+
+    private static List<StoredCandle> convert(HistoricalData data) {
+        if (data == null || data.dataArrayList == null) {
+            return List.of();
+        }
+        List<StoredCandle> candles = new ArrayList<>(data.dataArrayList.size());
+        for (HistoricalData candle : data.dataArrayList) {
+            candles.add(new StoredCandle(OffsetDateTime.parse(candle.timeStamp, KITE_TIMESTAMP).toInstant().toEpochMilli(),
+                candle.open, candle.high, candle.low, candle.close, (long) candle.volume, (long) candle.oi));
+        }
+        return candles;
+    }
+}
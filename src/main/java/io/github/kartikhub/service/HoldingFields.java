@@ -0,0 +1,68 @@
+package io.github.kartikhub.service;
+
+import com.zerodhatech.models.Holding;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Named accessors for {@link Holding} fields, using Kite's API field names.
+ * Shared by field projection, sorting and filtering so the set of supported fields is defined once.
+ */
+public final class HoldingFields {
+    private static final Map<String, Function<Holding, Object>> ACCESSORS;
+
+    static {
+        Map<String, Function<Holding, Object>> accessors = new LinkedHashMap<>();
+        accessors.put("tradingsymbol", h -> h.tradingSymbol);
+        accessors.put("exchange", h -> h.exchange);
+        accessors.put("instrument_token", h -> h.instrumentToken);
+        accessors.put("isin", h -> h.isin);
+        accessors.put("product", h -> h.product);
+        accessors.put("quantity", h -> h.quantity);
+        accessors.put("t1_quantity", h -> h.t1Quantity);
+        accessors.put("average_price", h -> h.averagePrice);
+        accessors.put("last_price", h -> h.lastPrice);
+        accessors.put("pnl", h -> h.pnl);
+        accessors.put("day_change", h -> h.dayChange);
+        accessors.put("day_change_percentage", h -> h.dayChangePercentage);
+        ACCESSORS = Collections.unmodifiableMap(accessors);
+    }
+
+    private HoldingFields() {
+    }
+
+    public static Set<String> names() {
+        return ACCESSORS.keySet();
+    }
+
+    public static Function<Holding, Object> accessor(String name) {
+        Function<Holding, Object> accessor = ACCESSORS.get(name);
+        if (accessor == null) {
+            throw new IllegalArgumentException("Unknown holding field '" + name + "'. Supported fields: " + names());
+        }
+        return accessor;
+    }
+
+    /**
+     * Ascending order by the named field; numbers compare numerically and missing values sort last.
+     */
+    public static Comparator<Holding> comparator(String name) {
+        Function<Holding, Object> accessor = accessor(name);
+        return (a, b) -> compareValues(accessor.apply(a), accessor.apply(b));
+    }
+
+    private static int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == b ? 0 : (a == null ? 1 : -1);
+        }
+        if (a instanceof Number x && b instanceof Number y) {
+            return Double.compare(x.doubleValue(), y.doubleValue());
+        }
+        return a.toString().compareTo(b.toString());
+    }
+}
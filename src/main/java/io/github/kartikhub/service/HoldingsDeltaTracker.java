@@ -0,0 +1,162 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+import io.github.kartikhub.session.SessionListener;
+
+import com.zerodhatech.models.Holding;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Remembers the last holdings each session was sent so repeated polls can return only what changed.
+ * <p>
+ * A snapshot is compact: the instrument tokens of the rows, sorted, and a 64-bit hash of each row's
+ * projected field values, so only changes to the fields the client asked for count. It is tagged with
+ * a version the client sends back; if that version is not the session's latest, or the fields or
+ * filters differ, the client gets a full resync instead. Polls that find no change keep the version.
+ * Only the latest snapshot per session is kept, and it is dropped when the session is removed or
+ * re-authenticated.
+ */
+@Slf4j
+@Component
+public class HoldingsDeltaTracker implements SessionListener {
+    // Starts at a random point so versions from before a restart are never mistaken for current ones
+    private final AtomicLong versions = new AtomicLong(ThreadLocalRandom.current().nextLong() >>> 1);
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * @param full    true when the client must replace its copy; every row is then in {@code added}
+     * @param removed instrument tokens of rows that are gone
+     */
+    public record Delta(String version, boolean full, List<Holding> added, List<Holding> changed,
+                        List<String> removed) {
+    }
+
+    private record Snapshot(long version, String view, String[] keys, long[] hashes) {
+    }
+
+    /**
+     * Diffs {@code holdings} against the session's snapshot and records them as the new snapshot.
+     *
+     * @param view         identifies the fields and filters {@code holdings} was produced with
+     * @param accessors    the projected fields; only their values are compared
+     * @param sinceVersion version returned by the client's previous call, or {@code null}
+     */
+    public Delta diff(String sessionId, String view, List<Holding> holdings, List<Function<Holding, Object>> accessors,
+                      String sinceVersion) {
+        Integer[] order = new Integer[holdings.size()];
+        String[] keys = new String[holdings.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            keys[i] = key(holdings.get(i));
+        }
+        Arrays.sort(order, Comparator.comparing(i -> keys[i]));
+        String[] sortedKeys = new String[order.length];
+        long[] hashes = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            hashes[i] = hash(holdings.get(order[i]), accessors);
+        }
+
+        Delta[] result = new Delta[1];
+        snapshots.compute(sessionId, (id, previous) -> {
+            if (previous == null || !previous.view().equals(view) || !encode(previous.version()).equals(sinceVersion)) {
+                long version = versions.incrementAndGet();
+                result[0] = new Delta(encode(version), true, sortedRows(holdings, order), List.of(), List.of());
+                return new Snapshot(version, view, sortedKeys, hashes);
+            }
+
+            List<Holding> added = new ArrayList<>();
+            List<Holding> changed = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+            int i = 0;
+            int j = 0;
+            while (i < sortedKeys.length || j < previous.keys().length) {
+                int cmp = i == sortedKeys.length ? 1
+                    : j == previous.keys().length ? -1
+                    : sortedKeys[i].compareTo(previous.keys()[j]);
+                if (cmp < 0) {
+                    added.add(holdings.get(order[i++]));
+                } else if (cmp > 0) {
+                    removed.add(previous.keys()[j++]);
+                } else {
+                    if (hashes[i] != previous.hashes()[j]) {
+                        changed.add(holdings.get(order[i]));
+                    }
+                    i++;
+                    j++;
+                }
+            }
+            if (added.isEmpty() && changed.isEmpty() && removed.isEmpty()) {
+                result[0] = new Delta(sinceVersion, false, List.of(), List.of(), List.of());
+                return previous;
+            }
+            long version = versions.incrementAndGet();
+            result[0] = new Delta(encode(version), false, added, changed, removed);
+            return new Snapshot(version, view, sortedKeys, hashes);
+        });
+        return result[0];
+    }
+
+    @Override
+    public void sessionAuthenticated(SessionData session) {
+        snapshots.remove(session.getSessionId());
+    }
+
+    @Override
+    public void sessionRemoved(String sessionId) {
+        if (snapshots.remove(sessionId) != null) {
+            log.debug("Dropped holdings snapshot for session: {}", sessionId);
+        }
+    }
+
+    private static List<Holding> sortedRows(List<Holding> holdings, Integer[] order) {
+        List<Holding> rows = new ArrayList<>(order.length);
+        for (Integer index : order) {
+            rows.add(holdings.get(index));
+        }
+        return rows;
+    }
+
+    private static String key(Holding holding) {
+        Object token = holding.instrumentToken;
+        return String.valueOf(token != null ? token : holding.tradingSymbol);
+    }
+
+    private static long hash(Holding holding, List<Function<Holding, Object>> accessors) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (Function<Holding, Object> accessor : accessors) {
+            Object value = accessor.apply(holding);
+            long bits = value instanceof Double d ? Double.doubleToLongBits(d)
+                : value instanceof Number n ? n.longValue()
+                : Objects.hashCode(value);
+            hash = mix(hash ^ bits);
+        }
+        return hash;
+    }
+
+    // Murmur3 finalizer, so a change in any field flips about half the bits
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static String encode(long version) {
+        return Long.toString(version, 36);
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.kartikhub.service;
+
+/**
+ * One row of Kite's instrument list, as returned by {@link InstrumentStore} lookups.
+ *
+ * @param expiry expiry date (yyyy-MM-dd) for derivatives, or {@code null}
+ */
+public record InstrumentInfo(long instrumentToken, long exchangeToken, String tradingsymbol, String name,
+                             String exchange, String segment, String instrumentType, String expiry,
+                             double strike, double tickSize, int lotSize) {
+}
@@ -0,0 +1,510 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.config.KiteHttpTransport;
+import io.github.kartikhub.properties.KiteProperties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Local copy of Kite's instrument list for symbol and token lookups.
+ * <p>
+ * The daily CSV dump is parsed in a single streaming pass into a compact binary file, which is then
+ * memory-mapped read-only. Lookups binary-search two sorted indexes stored in the same file (by trading
+ * symbol and by instrument token) and decode only the rows they return, so the instrument list itself
+ * never lives on the Java heap. The newest file is reused at startup and replaced by the scheduled
+ * refresh ({@code kite.instruments.refresh-cron}).
+ * <p>
+ * File layout: a 32-byte header ({@code magic, version, epochDay, count, symbolIndex, tokenIndex}),
+ * variable-length records, the symbol index ({@code int} record offsets in symbol/exchange order) and
+ * the token index ({@code long token, int offset} pairs in token order).
+ */
+@Slf4j
+@Component
+public class InstrumentStore {
+    private static final int MAGIC = 0x4B494E53; // "KINS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int TOKEN_ENTRY_SIZE = 12;
+    private static final String FILE_PREFIX = "instruments-";
+    private static final String FILE_SUFFIX = ".bin";
+
+    private final KiteProperties kiteProperties;
+    private final KiteProperties.Instruments config;
+    private final KiteCallExecutor callExecutor;
+    private final OkHttpClient httpClient;
+    private final Path directory;
+    private final ZoneId zone;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    public InstrumentStore(KiteProperties kiteProperties, KiteHttpTransport transport, KiteCallExecutor callExecutor) {
+        this.kiteProperties = kiteProperties;
+        this.config = kiteProperties.getInstruments();
+        this.callExecutor = callExecutor;
+        this.httpClient = transport.getHttpClient() != null ? transport.getHttpClient() : new OkHttpClient();
+        this.directory = Path.of(config.getDirectory());
+        this.zone = ZoneId.of(config.getZone());
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        for (Path file : instrumentFiles()) {
+            try {
+                snapshot = Snapshot.load(file);
+                log.info("Loaded {} instruments for {} from {}", snapshot.count(), snapshot.date(), file);
+                break;
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable instrument file {}: {}", file, e.getMessage());
+            }
+        }
+        if (snapshot == null || snapshot.date().isBefore(LocalDate.now(zone))) {
+            callExecutor.submit(() -> {
+                refresh();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Downloads the day's instrument dump and swaps it in. Concurrent calls are ignored while a refresh runs.
+     */
+    @Scheduled(cron = "${kite.instruments.refresh-cron:0 15 8 * * *}", zone = "${kite.instruments.zone:Asia/Kolkata}")
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            LocalDate date = LocalDate.now(zone);
+            Request request = new Request.Builder()
+                .url(kiteProperties.getBaseUrl() + "/instruments")
+                .header("X-Kite-Version", "3")
+                .build();
+            Path file;
+            try (Response response = httpClient.newCall(request).execute()) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    throw new IOException("Instrument download failed with HTTP " + response.code());
+                }
+                file = build(response.body().byteStream(), date);
+            }
+            snapshot = Snapshot.load(file);
+            log.info("Refreshed {} instruments for {} in {} ms", snapshot.count(), date,
+                     Duration.ofNanos(System.nanoTime() - started).toMillis());
+            deleteOldFiles(file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Instrument refresh failed; keeping the previous list: {}", e.getMessage(), e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    public Optional<InstrumentInfo> findByToken(long instrumentToken) {
+        Snapshot current = loaded();
+        int low = 0;
+        int high = current.count() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long token = current.buffer().getLong(current.tokenIndex() + mid * TOKEN_ENTRY_SIZE);
+            if (token < instrumentToken) {
+                low = mid + 1;
+            } else if (token > instrumentToken) {
+                high = mid - 1;
+            } else {
+                int offset = current.buffer().getInt(current.tokenIndex() + mid * TOKEN_ENTRY_SIZE + 8);
+                return Optional.of(current.decode(HEADER_SIZE + offset));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Instruments with exactly this trading symbol, optionally restricted to one exchange.
+     */
+    public List<InstrumentInfo> findBySymbol(String tradingsymbol, String exchange) {
+        return scan(tradingsymbol, exchange, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Instruments whose trading symbol starts with {@code prefix}, in symbol order.
+     */
+    public List<InstrumentInfo> searchByPrefix(String prefix, String exchange, int limit) {
+        return scan(prefix, exchange, limit, true);
+    }
+
+    private List<InstrumentInfo> scan(String symbol, String exchange, int limit, boolean prefix) {
+        Snapshot current = loaded();
+        byte[] key = symbol.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        byte[] exchangeKey = exchange == null ? null : exchange.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        List<InstrumentInfo> matches = new ArrayList<>();
+        for (int i = current.lowerBound(key); i < current.count() && matches.size() < limit; i++) {
+            int offset = current.recordAt(i);
+            if (current.compareSymbol(offset, key, prefix) != 0) {
+                break;
+            }
+            if (exchangeKey == null || current.exchangeEquals(offset, exchangeKey)) {
+                matches.add(current.decode(offset));
+            }
+        }
+        return matches;
+    }
+
+    private Snapshot loaded() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("The instrument list has not been downloaded yet. Please try again shortly.");
+        }
+        return current;
+    }
+
+    /**
+     * Streams the CSV into a records file, sorts the two indexes and writes the final file.
+     */
+    private Path build(InputStream csv, LocalDate date) throws IOException {
+        Path records = directory.resolve(FILE_PREFIX + date + ".records");
+        Path staging = directory.resolve(FILE_PREFIX + date + FILE_SUFFIX + ".tmp");
+        Path target = directory.resolve(FILE_PREFIX + date + FILE_SUFFIX);
+        try {
+            int count = 0;
+            int[] offsets = new int[1 << 16];
+            long[] tokens = new long[1 << 16];
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(records)))) {
+                Columns columns = Columns.of(reader.readLine());
+                List<String> fields = new ArrayList<>(16);
+                StringBuilder field = new StringBuilder();
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    splitCsv(line, fields, field);
+                    long token = parseLong(columns.get(fields, "instrument_token"));
+                    if (token < 0 || token >>> 32 != 0) {
+                        continue;
+                    }
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                        tokens = Arrays.copyOf(tokens, count * 2);
+                    }
+                    offsets[count] = out.size();
+                    tokens[count] = token;
+                    count++;
+                    writeString(out, columns.get(fields, "tradingsymbol"));
+                    writeString(out, columns.get(fields, "exchange"));
+                    out.writeLong(token);
+                    out.writeLong(parseLong(columns.get(fields, "exchange_token")));
+                    writeString(out, columns.get(fields, "name"));
+                    writeString(out, columns.get(fields, "instrument_type"));
+                    writeString(out, columns.get(fields, "segment"));
+                    writeString(out, columns.get(fields, "expiry"));
+                    out.writeDouble(parseDouble(columns.get(fields, "strike")));
+                    out.writeDouble(parseDouble(columns.get(fields, "tick_size")));
+                    out.writeInt((int) parseLong(columns.get(fields, "lot_size")));
+                    if (out.size() < 0) {
+                        throw new IOException("Instrument dump exceeds 2 GB");
+                    }
+                }
+            }
+
+            Integer[] symbolOrder = new Integer[count];
+            long[] tokenOrder = new long[count];
+            for (int i = 0; i < count; i++) {
+                symbolOrder[i] = i;
+                tokenOrder[i] = tokens[i] << 31 | i;
+            }
+            try (FileChannel channel = FileChannel.open(records, StandardOpenOption.READ)) {
+                Snapshot unsorted = new Snapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                    date, count, 0, 0);
+                int[] recordOffsets = offsets;
+                Arrays.sort(symbolOrder, (a, b) -> unsorted.compareRecords(recordOffsets[a], recordOffsets[b]));
+            }
+            Arrays.sort(tokenOrder);
+
+            int recordsSize = Math.toIntExact(Files.size(records));
+            int symbolIndex = Math.addExact(HEADER_SIZE, recordsSize);
+            int tokenIndex = Math.addExact(symbolIndex, count * 4);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(staging)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(date.toEpochDay());
+                out.writeInt(count);
+                out.writeInt(symbolIndex);
+                out.writeInt(tokenIndex);
+                out.write(new byte[HEADER_SIZE - out.size()]);
+                Files.copy(records, out);
+                for (Integer i : symbolOrder) {
+                    out.writeInt(offsets[i]);
+                }
+                for (long packed : tokenOrder) {
+                    int i = (int) (packed & Integer.MAX_VALUE);
+                    out.writeLong(tokens[i]);
+                    out.writeInt(offsets[i]);
+                }
+            }
+            Files.move(staging, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } finally {
+            Files.deleteIfExists(records);
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    private List<Path> instrumentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                })
+                .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                .toList();
+        }
+    }
+
+    private void deleteOldFiles(Path current) throws IOException {
+        List<Path> files = instrumentFiles();
+        for (int i = Math.max(1, config.getKeepFiles()); i < files.size(); i++) {
+            if (!files.get(i).equals(current)) {
+                Files.deleteIfExists(files.get(i));
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        out.writeShort(length);
+        out.write(bytes, 0, length);
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value == null || value.isEmpty() ? 0 : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return value == null || value.isEmpty() ? 0 : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Splits one CSV line into {@code fields}, honouring double-quoted values.
+     */
+    private static void splitCsv(String line, List<String> fields, StringBuilder field) {
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString());
+    }
+
+    /**
+     * Column positions taken from the CSV header, so column order changes in the dump are harmless.
+     */
+    private record Columns(Map<String, Integer> positions) {
+        static Columns of(String header) throws IOException {
+            if (header == null) {
+                throw new IOException("Instrument dump is empty");
+            }
+            List<String> names = new ArrayList<>();
+            splitCsv(header, names, new StringBuilder());
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                positions.put(names.get(i).trim(), i);
+            }
+            if (!positions.containsKey("instrument_token") || !positions.containsKey("tradingsymbol")) {
+                throw new IOException("Unexpected instrument dump header: " + header);
+            }
+            return new Columns(positions);
+        }
+
+        String get(List<String> fields, String column) {
+            Integer position = positions.get(column);
+            return position == null || position >= fields.size() ? null : fields.get(position);
+        }
+    }
+
+    /**
+     * A mapped instrument file. All reads use absolute offsets, so one instance is safe to share between threads.
+     */
+    private record Snapshot(MappedByteBuffer buffer, LocalDate date, int count, int symbolIndex, int tokenIndex) {
+
+        static Snapshot load(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                    throw new IOException("Not an instrument file: " + file);
+                }
+                return new Snapshot(buffer, LocalDate.ofEpochDay(buffer.getLong(8)), buffer.getInt(16),
+                    buffer.getInt(20), buffer.getInt(24));
+            }
+        }
+
+        int recordAt(int symbolPosition) {
+            return HEADER_SIZE + buffer.getInt(symbolIndex + symbolPosition * 4);
+        }
+
+        /**
+         * First position in the symbol index whose symbol is not less than {@code key}.
+         */
+        int lowerBound(byte[] key) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareSymbol(recordAt(mid), key, false) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Compares the record's symbol with {@code key}; with {@code prefix}, a symbol starting with the key is equal.
+         */
+        int compareSymbol(int offset, byte[] key, boolean prefix) {
+            int length = buffer.getShort(offset) & 0xFFFF;
+            int shared = Math.min(length, key.length);
+            for (int i = 0; i < shared; i++) {
+                int diff = (buffer.get(offset + 2 + i) & 0xFF) - (key[i] & 0xFF);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return prefix && length >= key.length ? 0 : length - key.length;
+        }
+
+        /**
+         * Orders two records by symbol, then exchange; offsets are relative to {@code buffer}'s start.
+         */
+        int compareRecords(int a, int b) {
+            int result = compareString(a, b);
+            if (result != 0) {
+                return result;
+            }
+            return compareString(a + 2 + (buffer.getShort(a) & 0xFFFF), b + 2 + (buffer.getShort(b) & 0xFFFF));
+        }
+
+        boolean exchangeEquals(int offset, byte[] exchange) {
+            int exchangeOffset = offset + 2 + (buffer.getShort(offset) & 0xFFFF);
+            if ((buffer.getShort(exchangeOffset) & 0xFFFF) != exchange.length) {
+                return false;
+            }
+            for (int i = 0; i < exchange.length; i++) {
+                if (buffer.get(exchangeOffset + 2 + i) != exchange[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        InstrumentInfo decode(int offset) {
+            int[] position = {offset};
+            String tradingsymbol = readString(position);
+            String exchange = readString(position);
+            long instrumentToken = readLong(position);
+            long exchangeToken = readLong(position);
+            String name = readString(position);
+            String instrumentType = readString(position);
+            String segment = readString(position);
+            String expiry = readString(position);
+            double strike = Double.longBitsToDouble(readLong(position));
+            double tickSize = Double.longBitsToDouble(readLong(position));
+            int lotSize = buffer.getInt(position[0]);
+            return new InstrumentInfo(instrumentToken, exchangeToken, tradingsymbol, name, exchange, segment,
+                instrumentType, expiry.isEmpty() ? null : expiry, strike, tickSize, lotSize);
+        }
+
+        private int compareString(int a, int b) {
+            int lengthA = buffer.getShort(a) & 0xFFFF;
+            int lengthB = buffer.getShort(b) & 0xFFFF;
+            int shared = Math.min(lengthA, lengthB);
+            for (int i = 0; i < shared; i++) {
+                int diff = (buffer.get(a + 2 + i) & 0xFF) - (buffer.get(b + 2 + i) & 0xFF);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return lengthA - lengthB;
+        }
+
+        private String readString(int[] position) {
+            int length = buffer.getShort(position[0]) & 0xFFFF;
+            byte[] bytes = new byte[length];
+            buffer.get(position[0] + 2, bytes);
+            position[0] += 2 + length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private long readLong(int[] position) {
+            long value = buffer.getLong(position[0]);
+            position[0] += 8;
+            return value;
+        }
+    }
+}
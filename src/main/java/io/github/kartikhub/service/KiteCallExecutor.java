@@ -0,0 +1,77 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.properties.KiteProperties;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking Kite work off the caller's thread.
+ * <p>
+ * The Kite SDK only offers blocking calls, so the async API of {@link KiteService} and the ASYNC
+ * MCP tool adapter hand that work to this executor instead of holding servlet or reactor threads.
+ * With {@code kite.execution.virtual-threads} each call gets its own virtual thread; upstream
+ * concurrency is then bounded by {@link KiteConcurrencyLimiter} rather than by the pool size.
+ * Tasks run under the submitting thread's {@link KiteDeadline}.
+ * <p>
+ * Work that fans out and waits for its parts, such as a tool invocation in ASYNC mode, may itself be
+ * running on the pool; its parts go through {@link #fork} so they can never queue behind the threads
+ * waiting for them.
+ */
+@Slf4j
+@Component
+public class KiteCallExecutor {
+    private final ExecutorService executor;
+    private final ExecutorService forkExecutor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kite-fork-", 0).factory());
+
+    public KiteCallExecutor(KiteProperties kiteProperties) {
+        KiteProperties.Execution config = kiteProperties.getExecution();
+        if (config.isVirtualThreads()) {
+            log.info("Running Kite calls on virtual threads");
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kite-call-", 0).factory());
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            config.getMaxThreads(), config.getMaxThreads(), 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(config.getQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "kite-call-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(KiteDeadline.propagate(task), executor);
+    }
+
+    /**
+     * Runs one part of work the caller will wait for, always on its own virtual thread. With the bounded
+     * pool, parts submitted from pool threads and joined there could otherwise fill the pool with
+     * waiting parents while the parts sit in its queue.
+     */
+    public <T> CompletableFuture<T> fork(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(KiteDeadline.propagate(task), forkExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.debug("Shutting down Kite call executor");
+        executor.shutdown();
+        forkExecutor.shutdown();
+    }
+}
@@ -0,0 +1,348 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.exception.CircuitOpenException;
+import io.github.kartikhub.exception.DeadlineExceededException;
+import io.github.kartikhub.exception.RateLimitExceededException;
+import io.github.kartikhub.properties.KiteProperties;
+
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Resilience around single upstream Kite calls: a circuit breaker per {@link KiteEndpoint}, bounded
+ * retries with jittered backoff for idempotent endpoints, and optional hedging.
+ * <p>
+ * Only upstream failures count against the breaker and are retried: network errors, timeouts and Kite
+ * 5xx responses (plus 429 for retries). Client errors such as an expired token pass straight through,
+ * as do timeouts caused by the request's own deadline rather than the configured HTTP timeouts, and our
+ * own rate and concurrency limits rejecting the attempt before it reached Kite.
+ * While a breaker is open, calls fail immediately with {@link CircuitOpenException} instead of waiting
+ * on a degraded endpoint; after {@code kite.resilience.open-duration} a single probe call decides whether
+ * it closes again. No retry backoff is started that would run past the request's {@link KiteDeadline}.
+ * <p>
+ * With {@code kite.resilience.hedging}, a call to an idempotent endpoint in the default rate category
+ * that is still running after the endpoint's recent p95 latency is raced against a second attempt; the
+ * first success wins. Quote and historical endpoints are never hedged, their rate limits are too tight.
+ */
+@Slf4j
+@Component
+public class KiteCallGuard {
+    private final KiteProperties kiteProperties;
+    private final Map<KiteEndpoint, Breaker> breakers = new ConcurrentHashMap<>();
+    private final Map<KiteEndpoint, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final ExecutorService hedgeExecutor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kite-hedge-", 0).factory());
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public record Stats(long retries, long hedges, long rejected) {
+    }
+
+    public KiteCallGuard(KiteProperties kiteProperties) {
+        this.kiteProperties = kiteProperties;
+    }
+
+    /**
+     * Runs one logical upstream call. {@code attempt} performs a single request and may be invoked more
+     * than once, possibly concurrently when hedging.
+     */
+    public <T> T call(KiteEndpoint endpoint, Supplier<T> attempt) {
+        KiteProperties.Resilience config = kiteProperties.getResilience();
+        if (!config.isEnabled()) {
+            return attempt.get();
+        }
+        Breaker breaker = breakers.computeIfAbsent(endpoint, e -> new Breaker(config.getWindowSize()));
+        LatencyWindow latency = latencies.computeIfAbsent(endpoint, e -> new LatencyWindow(config.getLatencyWindowSize()));
+        int maxAttempts = endpoint.isIdempotent() ? Math.max(1, config.getMaxAttempts()) : 1;
+
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            KiteDeadline.check(endpoint.getOperation());
+            boolean probe = breaker.acquire(endpoint, config);
+            long hedgeDelay = probe || !isHedgeable(endpoint, config) ? -1 : latency.p95Nanos(config.getMinHedgeSamples());
+            // KiteDeadlineInterceptor cuts the HTTP timeouts to the deadline; a timeout then says nothing about Kite
+            boolean deadlineBound = KiteDeadline.remainingNanos() - Math.max(0, hedgeDelay)
+                < longestHttpTimeoutNanos(kiteProperties.getHttp());
+            long start = System.nanoTime();
+            try {
+                T result = hedgeDelay > 0 ? hedged(attempt, hedgeDelay) : attempt.get();
+                latency.record(System.nanoTime() - start);
+                breaker.record(false, config);
+                return result;
+            } catch (RuntimeException e) {
+                if (isDeadlineFailure(e, deadlineBound) || isLocalRejection(e)) {
+                    // Says nothing about Kite either way, so it neither counts nor settles a half-open probe
+                    breaker.skip();
+                } else {
+                    breaker.record(isUpstreamFailure(e, deadlineBound), config);
+                }
+                long backoff = backoffNanos(config, attemptNumber);
+                if (attemptNumber >= maxAttempts || !isRetryable(e, deadlineBound) || backoff >= KiteDeadline.remainingNanos()) {
+                    throw e;
+                }
+                retries.increment();
+                log.debug("Retrying '{}' in {} ms after attempt {} failed: {}", endpoint.getOperation(),
+                          TimeUnit.NANOSECONDS.toMillis(backoff), attemptNumber, e.getMessage());
+                LockSupport.parkNanos(backoff);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public State getState(KiteEndpoint endpoint) {
+        Breaker breaker = breakers.get(endpoint);
+        return breaker == null ? State.CLOSED : breaker.state();
+    }
+
+    public Stats stats() {
+        return new Stats(retries.sum(), hedges.sum(), rejected.sum());
+    }
+
+    private static boolean isHedgeable(KiteEndpoint endpoint, KiteProperties.Resilience config) {
+        return config.isHedging() && endpoint.isIdempotent()
+            && endpoint.getRateCategory() == KiteEndpoint.RateCategory.DEFAULT;
+    }
+
+    private <T> T hedged(Supplier<T> attempt, long delayNanos) {
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(KiteDeadline.propagate(attempt), hedgeExecutor);
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than usual; race a second attempt below
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Kite", e);
+        }
+
+        hedges.increment();
+        CompletableFuture<T> hedge = CompletableFuture.supplyAsync(KiteDeadline.propagate(attempt), hedgeExecutor);
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> candidate : Arrays.asList(primary, hedge)) {
+            candidate.whenComplete((value, error) -> {
+                if (error == null) {
+                    first.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    first.completeExceptionally(error);
+                }
+            });
+        }
+        try {
+            // The losing attempt is abandoned; its HTTP timeouts are bounded by the same deadline
+            return first.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+    }
+
+    private static long backoffNanos(KiteProperties.Resilience config, int attemptNumber) {
+        // Full jitter: uniform in [0, min(max, base * 2^(attempt - 1))]
+        long ceiling = Math.min(config.getMaxBackoff().toNanos(),
+            config.getInitialBackoff().toNanos() << Math.min(attemptNumber - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static long longestHttpTimeoutNanos(KiteProperties.Http config) {
+        return Math.max(config.getConnectTimeout().toNanos(),
+            Math.max(config.getReadTimeout().toNanos(), config.getWriteTimeout().toNanos()));
+    }
+
+    /**
+     * Whether the call failed because the caller's deadline ran out: either directly, or as a timeout while
+     * {@code deadlineBound} means the HTTP timeouts had been cut short to the deadline.
+     */
+    private static boolean isDeadlineFailure(RuntimeException e, boolean deadlineBound) {
+        return e instanceof DeadlineExceededException || (deadlineBound && e.getCause() instanceof InterruptedIOException);
+    }
+
+    /**
+     * Whether our own rate or concurrency limiter turned the attempt away before it reached Kite.
+     */
+    private static boolean isLocalRejection(RuntimeException e) {
+        return e instanceof RateLimitExceededException;
+    }
+
+    private static boolean isUpstreamFailure(RuntimeException e, boolean deadlineBound) {
+        if (isDeadlineFailure(e, deadlineBound) || isLocalRejection(e)) {
+            return false;
+        }
+        Throwable cause = e.getCause();
+        return cause instanceof IOException || (cause instanceof KiteException kite && kite.code >= 500);
+    }
+
+    private static boolean isRetryable(RuntimeException e, boolean deadlineBound) {
+        if (e instanceof DeadlineExceededException || e instanceof CircuitOpenException || isLocalRejection(e)) {
+            return false;
+        }
+        return isUpstreamFailure(e, deadlineBound) || (e.getCause() instanceof KiteException kite && kite.code == 429);
+    }
+
+    /**
+     * Count-based breaker over the outcomes of the last {@code windowSize} calls.
+     */
+    private final class Breaker {
+        private final boolean[] failed;
+        private int next;
+        private int recorded;
+        private int failures;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private boolean probing;
+
+        Breaker(int windowSize) {
+            this.failed = new boolean[Math.max(1, windowSize)];
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        /**
+         * Admits a call or throws while open; returns true if the call is the half-open probe.
+         */
+        synchronized boolean acquire(KiteEndpoint endpoint, KiteProperties.Resilience config) {
+            if (state == State.OPEN) {
+                long remaining = config.getOpenDuration().toNanos() - (System.nanoTime() - openedAt);
+                if (remaining > 0) {
+                    rejected.increment();
+                    throw new CircuitOpenException(String.format(
+                        "Kite is failing to %s; not retrying for another %d s. Please try again later.",
+                        endpoint.getOperation(), Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining))));
+                }
+                state = State.HALF_OPEN;
+                probing = false;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probing) {
+                    rejected.increment();
+                    throw new CircuitOpenException(String.format(
+                        "Kite is failing to %s; checking whether it has recovered. Please try again shortly.",
+                        endpoint.getOperation()));
+                }
+                probing = true;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Lets another call probe after a half-open probe ended without telling whether Kite recovered.
+         */
+        synchronized void skip() {
+            if (state == State.HALF_OPEN) {
+                probing = false;
+            }
+        }
+
+        synchronized void record(boolean failure, KiteProperties.Resilience config) {
+            if (state == State.HALF_OPEN) {
+                probing = false;
+                if (failure) {
+                    open();
+                } else {
+                    log.info("Kite circuit closed again");
+                    reset(State.CLOSED);
+                }
+                return;
+            }
+            if (state != State.CLOSED) {
+                return;
+            }
+            if (recorded == failed.length) {
+                failures -= failed[next] ? 1 : 0;
+            } else {
+                recorded++;
+            }
+            failed[next] = failure;
+            failures += failure ? 1 : 0;
+            next = (next + 1) % failed.length;
+            if (recorded >= config.getMinimumCalls() && failures * 100 >= config.getFailureRateThreshold() * recorded) {
+                log.warn("Opening Kite circuit: {} of the last {} calls failed", failures, recorded);
+                open();
+            }
+        }
+
+        private void open() {
+            reset(State.OPEN);
+            openedAt = System.nanoTime();
+        }
+
+        private void reset(State newState) {
+            Arrays.fill(failed, false);
+            next = 0;
+            recorded = 0;
+            failures = 0;
+            state = newState;
+        }
+    }
+
+    /**
+     * Ring of recent successful call latencies, used to pick the hedging delay.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int size) {
+            this.samples = new long[Math.max(1, size)];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * 95th percentile of the window, or -1 until {@code minSamples} calls have been seen.
+         */
+        long p95Nanos(int minSamples) {
+            long[] copy;
+            synchronized (this) {
+                if (count < Math.max(1, minSamples)) {
+                    return -1;
+                }
+                copy = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(copy);
+            return copy[Math.min(copy.length - 1, (int) Math.ceil(copy.length * 0.95) - 1)];
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdown();
+    }
+}
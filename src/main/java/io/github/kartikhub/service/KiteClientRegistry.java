@@ -0,0 +1,77 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.config.KiteHttpTransport;
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+import io.github.kartikhub.session.SessionListener;
+
+import com.zerodhatech.kiteconnect.KiteConnect;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of authenticated {@link KiteConnect} clients, one per client session.
+ * <p>
+ * Each client carries its own access token so concurrent calls from different sessions never
+ * touch shared token state. All clients share one HTTP transport and are evicted with their session.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KiteClientRegistry implements SessionListener {
+    private final KiteProperties kiteProperties;
+    private final KiteHttpTransport transport;
+
+    private final Map<String, KiteConnect> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the client for the given session, creating it on first use or when the
+     * session's access token has changed since the client was built.
+     */
+    public KiteConnect getClient(SessionData session) {
+        KiteConnect client = clients.get(session.getSessionId());
+        if (client != null && isCurrent(client, session)) {
+            return client;
+        }
+        return clients.compute(session.getSessionId(),
+            (sessionId, existing) -> existing != null && isCurrent(existing, session) ? existing : newClient(session));
+    }
+
+    /**
+     * Creates a client without an access token, e.g. for exchanging a request token.
+     */
+    public KiteConnect newClient() {
+        KiteConnect client = new KiteConnect(kiteProperties.getApiKey());
+        client.setUserId(kiteProperties.getUserId());
+        return transport.attach(client);
+    }
+
+    @Override
+    public void sessionAuthenticated(SessionData session) {
+        clients.remove(session.getSessionId());
+    }
+
+    @Override
+    public void sessionRemoved(String sessionId) {
+        if (clients.remove(sessionId) != null) {
+            log.debug("Evicted Kite client for session: {}", sessionId);
+        }
+    }
+
+    private KiteConnect newClient(SessionData session) {
+        log.debug("Creating Kite client for session: {}", session.getSessionId());
+        KiteConnect client = newClient();
+        client.setUserId(session.getUserId());
+        client.setAccessToken(session.getAccessToken());
+        return client;
+    }
+
+    private static boolean isCurrent(KiteConnect client, SessionData session) {
+        String accessToken = session.getAccessToken();
+        return accessToken != null && accessToken.equals(client.getAccessToken());
+    }
+}
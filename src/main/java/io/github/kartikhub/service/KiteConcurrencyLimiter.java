@@ -0,0 +1,57 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.exception.ConcurrencyLimitExceededException;
+import io.github.kartikhub.properties.KiteProperties;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of concurrent upstream calls per {@link KiteEndpoint}.
+ * <p>
+ * With virtual threads nothing else limits how many Kite calls are in flight, so each endpoint gets a
+ * semaphore sized by {@code kite.execution.max-concurrent-calls}. Callers wait up to
+ * {@code kite.execution.permit-timeout} for a permit, or less if the request's {@link KiteDeadline} is sooner,
+ * and are then rejected with {@link ConcurrencyLimitExceededException}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KiteConcurrencyLimiter {
+    private final KiteProperties kiteProperties;
+
+    private final Map<KiteEndpoint, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public <T> T call(KiteEndpoint endpoint, Supplier<T> call) {
+        Semaphore semaphore = permits.computeIfAbsent(endpoint,
+            e -> new Semaphore(kiteProperties.getExecution().maxConcurrentCallsFor(e.key())));
+        acquire(endpoint, semaphore);
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private void acquire(KiteEndpoint endpoint, Semaphore semaphore) {
+        long timeoutNanos = Math.min(kiteProperties.getExecution().getPermitTimeout().toNanos(),
+            Math.max(0, KiteDeadline.remainingNanos()));
+        try {
+            if (!semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                log.warn("Timed out waiting for a Kite call slot to {}", endpoint.getOperation());
+                throw new ConcurrencyLimitExceededException("Too many concurrent requests to " + endpoint.getOperation()
+                    + ". Please retry shortly.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyLimitExceededException("Interrupted while waiting to " + endpoint.getOperation(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Deadline of the MCP request that a Kite call is made for.
+ * <p>
+ * The tool layer sets it from {@code spring.ai.mcp.server.request-timeout} when a tool is invoked, and
+ * {@link KiteCallExecutor} carries it onto the tasks it runs. The rate limiter, the concurrency limiter,
+ * retries and the OkHttp call timeouts then only ever use the time the request has left, so a slow
+ * upstream cannot hold a thread after the client has given up. Nested scopes can only shorten it.
+ */
+public final class KiteDeadline {
+    // System.nanoTime() value, or null when the thread is not serving a request
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private KiteDeadline() {
+    }
+
+    /**
+     * Runs {@code work} with a deadline of {@code timeout} from now, or the current deadline if that is sooner.
+     */
+    public static <T> T within(Duration timeout, Supplier<T> work) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Long current = DEADLINE.get();
+        return runWith(current != null && current - deadline < 0 ? current : deadline, work);
+    }
+
+    /**
+     * Wraps {@code work} so that it runs under the calling thread's deadline on whichever thread executes it.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? work : () -> runWith(deadline, work);
+    }
+
+    /**
+     * Nanoseconds left before the deadline; {@link Long#MAX_VALUE} when there is none.
+     */
+    public static long remainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    public static void check(String operation) {
+        if (remainingNanos() <= 0) {
+            throw new DeadlineExceededException("The request timed out before Kite could " + operation);
+        }
+    }
+
+    private static <T> T runWith(long deadline, Supplier<T> work) {
+        Long previous = DEADLINE.get();
+        DEADLINE.set(deadline);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.kartikhub.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Kite REST operations performed by {@link KiteService}.
+ * The {@link #key()} is used to look up per-endpoint settings such as {@code kite.cache.ttl.<key>}.
+ * Only {@link #isIdempotent() idempotent} endpoints are retried or hedged.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum KiteEndpoint {
+    HOLDINGS("fetch holdings", RateCategory.DEFAULT, true),
+    POSITIONS("fetch positions", RateCategory.DEFAULT, true),
+    MARGINS("fetch margins", RateCategory.DEFAULT, true),
+    ORDERS("fetch orders", RateCategory.DEFAULT, true),
+    QUOTE("fetch quotes", RateCategory.QUOTE, true),
+    LTP("fetch last traded prices", RateCategory.QUOTE, true),
+    HISTORICAL("fetch historical data", RateCategory.HISTORICAL, true);
+
+    /**
+     * API families that Kite Connect rate limits separately.
+     */
+    public enum RateCategory {
+        QUOTE, HISTORICAL, ORDER, DEFAULT;
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final String operation;
+    private final RateCategory rateCategory;
+    private final boolean idempotent;
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
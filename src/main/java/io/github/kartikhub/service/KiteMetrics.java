@@ -0,0 +1,76 @@
+package io.github.kartikhub.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for MCP tool invocations and upstream Kite calls.
+ * <p>
+ * Meters are registered up front (per endpoint at startup, per tool when its callback is wrapped) so
+ * recording on the request path is a map or field read plus a timer update, with no tag allocation.
+ */
+@Component
+public class KiteMetrics {
+    private final MeterRegistry registry;
+    private final Map<KiteEndpoint, Timer> upstreamSuccess = new EnumMap<>(KiteEndpoint.class);
+    private final Map<KiteEndpoint, Timer> upstreamError = new EnumMap<>(KiteEndpoint.class);
+    private final Map<Integer, Counter> kiteErrors = new ConcurrentHashMap<>();
+
+    /**
+     * Success and error timers for a single tool.
+     */
+    public record ToolTimers(Timer success, Timer error) {
+        public void record(long nanos, boolean succeeded) {
+            (succeeded ? success : error).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public KiteMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (KiteEndpoint endpoint : KiteEndpoint.values()) {
+            upstreamSuccess.put(endpoint, upstreamTimer(endpoint, "success"));
+            upstreamError.put(endpoint, upstreamTimer(endpoint, "error"));
+        }
+    }
+
+    public void recordUpstreamCall(KiteEndpoint endpoint, long nanos, boolean succeeded) {
+        (succeeded ? upstreamSuccess : upstreamError).get(endpoint).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordKiteError(int code) {
+        kiteErrors.computeIfAbsent(code, c -> Counter.builder("kite.api.errors")
+                .description("KiteException responses by error code")
+                .tag("code", String.valueOf(c))
+                .register(registry))
+            .increment();
+    }
+
+    public ToolTimers toolTimers(String toolName) {
+        return new ToolTimers(toolTimer(toolName, "success"), toolTimer(toolName, "error"));
+    }
+
+    private Timer upstreamTimer(KiteEndpoint endpoint, String outcome) {
+        return Timer.builder("kite.api.calls")
+            .description("Latency of upstream Kite API calls")
+            .tag("operation", endpoint.getOperation())
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private Timer toolTimer(String toolName, String outcome) {
+        return Timer.builder("kite.mcp.tool.calls")
+            .description("Latency of MCP tool invocations")
+            .tag("tool", toolName)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
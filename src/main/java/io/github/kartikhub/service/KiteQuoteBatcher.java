@@ -0,0 +1,248 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * Batches and coalesces market quote lookups across MCP sessions.
+ * <p>
+ * Quotes are market data rather than account data, so requests from different sessions can share an
+ * upstream call. The first caller in a quiet period becomes the batch leader: it waits for the
+ * coalescing window ({@code kite.quotes.coalesce-window}), closes the batch, and fetches the union of
+ * all instruments requested in the meantime in as few calls as Kite's per-request instrument limit
+ * allows, taking turns between the sessions in the batch so no single user's rate limit pays for all
+ * of them. Every caller then receives just the instruments it asked for. A failed call is only
+ * reported to callers of the session that made it; callers of other sessions fetch their instruments
+ * again under their own session, so one user's expired token or rate limit never fails another's lookup.
+ * <p>
+ * Results are cached per instrument for {@code kite.quotes.cache-ttl}, so repeated lookups of the same
+ * instruments within that period do not go upstream at all.
+ */
+@Slf4j
+@Component
+public class KiteQuoteBatcher {
+    private final KiteProperties.Quotes config;
+    private final Map<Mode, Lane> lanes = new EnumMap<>(Mode.class);
+
+    /**
+     * Quote flavours and the instrument limit Kite accepts per request for each.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Mode {
+        QUOTE(KiteEndpoint.QUOTE, 500),
+        LTP(KiteEndpoint.LTP, 1000);
+
+        private final KiteEndpoint endpoint;
+        private final int maxInstrumentsPerCall;
+    }
+
+    private record Cached(Object value, long expiresAt) {
+    }
+
+    private record Request(SessionData session, Set<String> instruments, CompletableFuture<Outcome> result) {
+    }
+
+    /**
+     * A batch's answer to one request; {@code retry} holds instruments whose fetch failed under another
+     * session, for the requester to fetch again under its own.
+     */
+    private record Outcome(Map<String, Object> quotes, Set<String> retry) {
+    }
+
+    private record Failure(String sessionId, RuntimeException error) {
+    }
+
+    private static final class Batch {
+        final List<Request> requests = new ArrayList<>();
+        final Set<String> instruments = new LinkedHashSet<>();
+    }
+
+    private static final class Lane {
+        final Map<String, Cached> cache = new ConcurrentHashMap<>();
+        // Guarded by this; the batch still accepting requests, if any
+        Batch open;
+    }
+
+    public KiteQuoteBatcher(KiteProperties kiteProperties) {
+        this.config = kiteProperties.getQuotes();
+        for (Mode mode : Mode.values()) {
+            lanes.put(mode, new Lane());
+        }
+    }
+
+    /**
+     * Returns quotes for the requested instruments ({@code EXCHANGE:TRADINGSYMBOL} or instrument tokens).
+     * Instruments Kite does not recognise are absent from the result.
+     *
+     * @param fetcher performs one upstream call for at most {@link Mode#getMaxInstrumentsPerCall()} instruments
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Map<String, V> get(Mode mode, SessionData session, Collection<String> instruments,
+                                  BiFunction<SessionData, String[], Map<String, V>> fetcher) {
+        Lane lane = lanes.get(mode);
+        long now = System.nanoTime();
+        Map<String, Object> result = new LinkedHashMap<>();
+        Set<String> misses = new LinkedHashSet<>();
+        for (String instrument : instruments) {
+            Cached cached = lane.cache.get(instrument);
+            if (cached != null && cached.expiresAt() - now > 0) {
+                result.put(instrument, cached.value());
+            } else {
+                misses.add(instrument);
+            }
+        }
+        if (misses.isEmpty()) {
+            return (Map<String, V>) result;
+        }
+
+        Request request = new Request(session, misses, new CompletableFuture<>());
+        Batch batch;
+        boolean leader;
+        synchronized (lane) {
+            leader = lane.open == null;
+            if (leader) {
+                lane.open = new Batch();
+            }
+            batch = lane.open;
+            batch.requests.add(request);
+            batch.instruments.addAll(misses);
+        }
+
+        if (leader) {
+            long window = config.getCoalesceWindow().toNanos();
+            if (window > 0) {
+                LockSupport.parkNanos(window);
+            }
+            synchronized (lane) {
+                lane.open = null;
+            }
+            execute(mode, lane, batch, fetcher);
+        }
+
+        Outcome outcome;
+        try {
+            outcome = request.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        result.putAll(outcome.quotes());
+        if (!outcome.retry().isEmpty()) {
+            log.debug("Refetching {} {} instruments for session {} after a shared call failed", outcome.retry().size(),
+                      mode, session.getSessionId());
+            result.putAll(fetch(mode, lane, session, outcome.retry().toArray(String[]::new), fetcher));
+        }
+        return (Map<String, V>) result;
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lanes.values().forEach(lane -> lane.cache.values().removeIf(cached -> cached.expiresAt() - now <= 0));
+    }
+
+    /**
+     * Fetches instruments for one session only, bypassing batching; failures propagate to the caller.
+     */
+    private Map<String, Object> fetch(Mode mode, Lane lane, SessionData session, String[] instruments,
+                                     BiFunction<SessionData, String[], ? extends Map<String, ?>> fetcher) {
+        int chunkSize = mode.getMaxInstrumentsPerCall();
+        Map<String, Object> fetched = new HashMap<>(instruments.length * 2);
+        for (int from = 0; from < instruments.length; from += chunkSize) {
+            fetched.putAll(fetcher.apply(session,
+                Arrays.copyOfRange(instruments, from, Math.min(instruments.length, from + chunkSize))));
+        }
+        long expiresAt = System.nanoTime() + config.getCacheTtl().toNanos();
+        fetched.forEach((instrument, value) -> lane.cache.put(instrument, new Cached(value, expiresAt)));
+        return fetched;
+    }
+
+    private void execute(Mode mode, Lane lane, Batch batch,
+                         BiFunction<SessionData, String[], ? extends Map<String, ?>> fetcher) {
+        try {
+            fetchAndDistribute(mode, lane, batch, fetcher);
+        } finally {
+            // Never leave followers waiting, even if the fetcher failed with an Error
+            IllegalStateException aborted = new IllegalStateException("Quote batch aborted");
+            batch.requests.forEach(request -> request.result().completeExceptionally(aborted));
+        }
+    }
+
+    private void fetchAndDistribute(Mode mode, Lane lane, Batch batch,
+                                    BiFunction<SessionData, String[], ? extends Map<String, ?>> fetcher) {
+        Map<String, SessionData> byId = new LinkedHashMap<>();
+        batch.requests.forEach(request -> byId.putIfAbsent(request.session().getSessionId(), request.session()));
+        List<SessionData> sessions = List.copyOf(byId.values());
+
+        String[] instruments = batch.instruments.toArray(String[]::new);
+        int chunkSize = mode.getMaxInstrumentsPerCall();
+        Map<String, Object> fetched = new HashMap<>(instruments.length * 2);
+        Map<String, Failure> failed = new HashMap<>();
+        for (int from = 0, call = 0; from < instruments.length; from += chunkSize, call++) {
+            String[] chunk = Arrays.copyOfRange(instruments, from, Math.min(instruments.length, from + chunkSize));
+            SessionData session = sessions.get(call % sessions.size());
+            try {
+                fetched.putAll(fetcher.apply(session, chunk));
+            } catch (RuntimeException e) {
+                Failure failure = new Failure(session.getSessionId(), e);
+                for (String instrument : chunk) {
+                    failed.put(instrument, failure);
+                }
+            }
+        }
+        log.debug("Fetched {} {} instruments for {} coalesced requests in {} calls", instruments.length, mode,
+                  batch.requests.size(), (instruments.length + chunkSize - 1) / chunkSize);
+
+        long expiresAt = System.nanoTime() + config.getCacheTtl().toNanos();
+        fetched.forEach((instrument, value) -> lane.cache.put(instrument, new Cached(value, expiresAt)));
+
+        for (Request request : batch.requests) {
+            Map<String, Object> quotes = new LinkedHashMap<>();
+            Set<String> retry = new LinkedHashSet<>();
+            RuntimeException error = null;
+            for (String instrument : request.instruments()) {
+                Object value = fetched.get(instrument);
+                Failure failure = failed.get(instrument);
+                if (value != null) {
+                    quotes.put(instrument, value);
+                } else if (failure == null) {
+                    continue;
+                } else if (!failure.sessionId().equals(request.session().getSessionId())) {
+                    retry.add(instrument);
+                } else if (error == null) {
+                    error = failure.error();
+                }
+            }
+            if (error != null) {
+                request.result().completeExceptionally(error);
+            } else {
+                request.result().complete(new Outcome(quotes, retry));
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.exception.RateLimitExceededException;
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.service.KiteEndpoint.RateCategory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Client-side rate limiter for Kite API calls, keyed by rate category and access token.
+ * <p>
+ * Each bucket is a lock-free token bucket in GCRA form: a single {@link AtomicLong} holds the
+ * theoretical arrival time of the next request, and callers reserve a slot with a CAS. Callers that
+ * would exceed the rate wait for their slot instead of being sent upstream to collect a 429, as long
+ * as the wait fits within the MCP request timeout and the bucket's queue is not full.
+ */
+@Slf4j
+@Component
+public class KiteRateLimiter {
+    private static final long IDLE_BUCKET_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final KiteProperties.RateLimit config;
+    private final long maxWaitNanos;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder immediate = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Point-in-time view of the limiter's counters.
+     */
+    public record Stats(long immediate, long delayed, long rejected, long totalWaitNanos, int queued, int buckets) {
+    }
+
+    private static final class Bucket {
+        private final long intervalNanos;
+        private final long burstToleranceNanos;
+        private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        Bucket(double requestsPerSecond, int burst) {
+            this.intervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+            this.burstToleranceNanos = intervalNanos * Math.max(0, burst - 1);
+        }
+
+        /**
+         * Reserves the next slot and returns how long the caller must wait for it,
+         * or -1 if that would exceed {@code maxWaitNanos}.
+         */
+        long reserve(long now, long maxWaitNanos) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long wait = next - intervalNanos - burstToleranceNanos - now;
+                if (wait > maxWaitNanos) {
+                    return -1;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return Math.max(0, wait);
+                }
+            }
+        }
+
+        boolean isIdle(long now) {
+            return waiting.get() == 0 && now - theoreticalArrival.get() > IDLE_BUCKET_NANOS;
+        }
+    }
+
+    public KiteRateLimiter(KiteProperties kiteProperties,
+                           @Value("${spring.ai.mcp.server.request-timeout:30s}") Duration requestTimeout) {
+        this.config = kiteProperties.getRateLimit();
+        this.maxWaitNanos = requestTimeout.toNanos();
+    }
+
+    /**
+     * Blocks until the caller may issue a request in the endpoint's rate category.
+     *
+     * @throws RateLimitExceededException if the wait would exceed the request timeout or too many callers are queued
+     */
+    public void acquire(KiteEndpoint endpoint, String accessToken) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        RateCategory category = endpoint.getRateCategory();
+        Bucket bucket = buckets.computeIfAbsent(category.key() + ':' + accessToken,
+            k -> new Bucket(config.requestsPerSecondFor(category.key()), config.getBurst()));
+
+        if (bucket.waiting.get() >= config.getMaxQueuedRequests()) {
+            reject(endpoint, "too many queued requests");
+        }
+        long maxWait = Math.min(maxWaitNanos, Math.max(0, KiteDeadline.remainingNanos()));
+        long wait = bucket.reserve(System.nanoTime(), maxWait);
+        if (wait < 0) {
+            reject(endpoint, "wait would exceed the request timeout");
+        }
+        if (wait == 0) {
+            immediate.increment();
+            return;
+        }
+
+        delayed.increment();
+        waitNanos.add(wait);
+        bucket.waiting.incrementAndGet();
+        queued.incrementAndGet();
+        try {
+            log.debug("Delaying '{}' by {} ms to stay within the {} rate limit", endpoint.getOperation(),
+                      wait / 1_000_000, category.key());
+            long deadline = System.nanoTime() + wait;
+            for (long remaining = wait; remaining > 0; remaining = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw new RateLimitExceededException("Interrupted while waiting to " + endpoint.getOperation());
+                }
+            }
+        } finally {
+            bucket.waiting.decrementAndGet();
+            queued.decrementAndGet();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(immediate.sum(), delayed.sum(), rejected.sum(), waitNanos.sum(), queued.get(), buckets.size());
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private void reject(KiteEndpoint endpoint, String reason) {
+        rejected.increment();
+        log.warn("Rate limit rejected '{}': {}", endpoint.getOperation(), reason);
+        throw new RateLimitExceededException(String.format(
+            "Kite rate limit reached while trying to %s (%s). Please retry shortly.", endpoint.getOperation(), reason));
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+import io.github.kartikhub.session.SessionListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-session read-through cache for Kite read endpoints.
+ * <p>
+ * Entries live for the TTL configured for their endpoint under {@code kite.cache.ttl}. Concurrent
+ * lookups for the same missing entry share a single in-flight upstream call. A session's entries are
+ * dropped when the session is removed or re-authenticated.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KiteResponseCache implements SessionListener {
+    private final KiteProperties kiteProperties;
+
+    private final Map<String, Map<String, Entry>> sessions = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        private final CompletableFuture<Object> value = new CompletableFuture<>();
+        // Long.MAX_VALUE while the upstream call is in flight
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        boolean isExpired(long now) {
+            return expiresAt - now <= 0;
+        }
+    }
+
+    /**
+     * Returns the cached value for the endpoint and key, loading it with {@code loader} if absent or expired.
+     * Cached values are shared between callers and must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String sessionId, KiteEndpoint endpoint, String key, Supplier<T> loader) {
+        KiteProperties.Cache config = kiteProperties.getCache();
+        if (!config.isEnabled()) {
+            return loader.get();
+        }
+
+        String cacheKey = endpoint.key() + ':' + key;
+        Map<String, Entry> entries = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>());
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(cacheKey);
+        if (entry != null && !entry.isExpired(now)) {
+            log.debug("Cache hit for {} in session: {}", cacheKey, sessionId);
+            return (T) await(entry);
+        }
+
+        Entry candidate = new Entry();
+        Entry winner = entries.compute(cacheKey,
+            (k, current) -> current != null && !current.isExpired(now) ? current : candidate);
+        if (winner != candidate) {
+            log.debug("Joining in-flight request for {} in session: {}", cacheKey, sessionId);
+            return (T) await(winner);
+        }
+
+        T value;
+        try {
+            value = loader.get();
+        } catch (Throwable e) {
+            // Errors too: an entry left in flight would block every later lookup of this key
+            entries.remove(cacheKey, candidate);
+            candidate.value.completeExceptionally(e);
+            throw e;
+        }
+        candidate.expiresAt = System.nanoTime() + config.ttlFor(endpoint.key()).toNanos();
+        candidate.value.complete(value);
+        evictIfFull(entries, config.getMaxEntriesPerSession());
+        return value;
+    }
+
+    public void invalidate(String sessionId) {
+        if (sessions.remove(sessionId) != null) {
+            log.debug("Invalidated cached Kite responses for session: {}", sessionId);
+        }
+    }
+
+    @Override
+    public void sessionAuthenticated(SessionData session) {
+        invalidate(session.getSessionId());
+    }
+
+    @Override
+    public void sessionRemoved(String sessionId) {
+        invalidate(sessionId);
+    }
+
+    private static Object await(Entry entry) {
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void evictIfFull(Map<String, Entry> entries, int maxEntries) {
+        while (entries.size() > maxEntries) {
+            // Evict the entry closest to expiry; in-flight entries are never chosen
+            Map.Entry<String, Entry> oldest = null;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (oldest == null || candidate.getValue().expiresAt < oldest.getValue().expiresAt) {
+                    oldest = candidate;
+                }
+            }
+            if (oldest == null || oldest.getValue().expiresAt == Long.MAX_VALUE) {
+                return;
+            }
+            entries.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+}
@@ -1,20 +1,45 @@
 package io.github.kartikhub.service;
 
+import io.github.kartikhub.diagnostics.Phase;
+import io.github.kartikhub.diagnostics.PhaseTimer;
+import io.github.kartikhub.diagnostics.PhaseTimers;
 import io.github.kartikhub.properties.KiteProperties;
 import io.github.kartikhub.session.KiteSessionManager;
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+import io.github.kartikhub.exception.CircuitOpenException;
+import io.github.kartikhub.exception.DeadlineExceededException;
+import io.github.kartikhub.exception.RateLimitExceededException;
 import io.github.kartikhub.exception.SessionNotFoundException;
 
 import com.zerodhatech.kiteconnect.KiteConnect;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Holding;
+import com.zerodhatech.models.LTPQuote;
+import com.zerodhatech.models.Margin;
+import com.zerodhatech.models.Order;
+import com.zerodhatech.models.Position;
+import com.zerodhatech.models.Quote;
 import com.zerodhatech.models.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -23,6 +48,16 @@ public class KiteService {
     private final KiteConnect kiteConnect;
     private final KiteProperties kiteProperties;
     private final KiteSessionManager sessionManager;
+    private final KiteClientRegistry clientRegistry;
+    private final KiteResponseCache responseCache;
+    private final KiteCallExecutor callExecutor;
+    private final KiteConcurrencyLimiter concurrencyLimiter;
+    private final KiteRateLimiter rateLimiter;
+    private final KiteMetrics metrics;
+    private final KiteQuoteBatcher quoteBatcher;
+    private final CandleStore candleStore;
+    private final KiteCallGuard callGuard;
+    private final PhaseTimers phaseTimers;
 
     public String getLoginUrl(String clientSessionId) {
         log.info("Generating Kite login URL for client session: {}", clientSessionId);
@@ -33,12 +68,9 @@ public class KiteService {
     public void generateSession(String clientSessionId, String requestToken) {
         try {
             log.info("Generating Kite session for client session: {}", clientSessionId);
-            User user = kiteConnect.generateSession(requestToken, kiteProperties.getApiSecret());
-            
-            // Set tokens on the KiteConnect client
-            kiteConnect.setAccessToken(user.accessToken);
-            kiteConnect.setPublicToken(user.publicToken);
-            
+            // Use a throwaway client so the token exchange never touches shared client state
+            User user = clientRegistry.newClient().generateSession(requestToken, kiteProperties.getApiSecret());
+
             // Update the existing session with the access token
             sessionManager.createSession(clientSessionId, user.accessToken, user.userId);
             sessionManager.setAuthenticated(clientSessionId, true);
@@ -52,8 +84,12 @@ public class KiteService {
     }
 
 
+    /**
+     * Returns the session's holdings, served from the response cache while fresh.
+     * The returned list is shared with other callers and must not be modified.
+     */
     public ArrayList<Holding> getHoldings(String clientSessionId) throws KiteException, IOException {
-        return executeKiteApiCall(clientSessionId, "fetch holdings", kc -> {
+        return executeCachedKiteApiCall(clientSessionId, KiteEndpoint.HOLDINGS, "", kc -> {
             try {
                 return new ArrayList<>(kc.getHoldings());
             } catch (KiteException | IOException e) {
@@ -63,17 +99,237 @@ public class KiteService {
     }
 
     /**
-     * Helper method to execute authenticated Kite API calls with proper session handling
+     * Non-blocking variant of {@link #getHoldings}. The call is {@link KiteCallExecutor#fork forked}, so
+     * the future may be joined from a Kite call executor thread, e.g. inside an ASYNC tool invocation.
+     */
+    public CompletableFuture<ArrayList<Holding>> getHoldingsAsync(String clientSessionId) {
+        return callExecutor.fork(() -> {
+            try {
+                return getHoldings(clientSessionId);
+            } catch (KiteException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the session's positions, served from the response cache while fresh. Shared; do not modify.
+     */
+    public Map<String, List<Position>> getPositions(String clientSessionId) {
+        return executeCachedKiteApiCall(clientSessionId, KiteEndpoint.POSITIONS, "", kc -> {
+            try {
+                return kc.getPositions();
+            } catch (KiteException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the session's margins, served from the response cache while fresh. Shared; do not modify.
+     */
+    public Map<String, Margin> getMargins(String clientSessionId) {
+        return executeCachedKiteApiCall(clientSessionId, KiteEndpoint.MARGINS, "", kc -> {
+            try {
+                return kc.getMargins();
+            } catch (KiteException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    public List<Order> getOrders(String clientSessionId) {
+        return executeKiteApiCall(clientSessionId, KiteEndpoint.ORDERS, kc -> {
+            try {
+                return kc.getOrders();
+            } catch (KiteException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Full market quotes for the given instruments ({@code EXCHANGE:TRADINGSYMBOL}), batched and coalesced
+     * with concurrent requests from other sessions. Unknown instruments are absent from the result.
+     */
+    public Map<String, Quote> getQuotes(String clientSessionId, Collection<String> instruments) {
+        SessionData session = validateSession(clientSessionId);
+        return quoteBatcher.get(KiteQuoteBatcher.Mode.QUOTE, session, instruments,
+            (caller, batch) -> invokeKiteApi(caller, KiteEndpoint.QUOTE, kc -> {
+                try {
+                    return kc.getQuote(batch);
+                } catch (KiteException | IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+    }
+
+    /**
+     * Last traded prices only; cheaper than {@link #getQuotes} and accepts twice as many instruments per call.
+     */
+    public Map<String, LTPQuote> getLtp(String clientSessionId, Collection<String> instruments) {
+        SessionData session = validateSession(clientSessionId);
+        return quoteBatcher.get(KiteQuoteBatcher.Mode.LTP, session, instruments,
+            (caller, batch) -> invokeKiteApi(caller, KiteEndpoint.LTP, kc -> {
+                try {
+                    return kc.getLTP(batch);
+                } catch (KiteException | IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+    }
+
+    /**
+     * Historical candles for an instrument, served from the on-disk {@link CandleStore}. Only the days
+     * the store does not have yet (and the current day) are fetched from Kite.
+     */
+    public List<Candle> getHistoricalData(String clientSessionId, long instrumentToken, String interval,
+                                          ZonedDateTime from, ZonedDateTime to, boolean continuous) {
+        SessionData session = validateSession(clientSessionId);
+        String token = Long.toString(instrumentToken);
+        return candleStore.read(instrumentToken, interval, continuous, from, to,
+            (rangeFrom, rangeTo) -> invokeKiteApi(session, KiteEndpoint.HISTORICAL, kc -> {
+                try {
+                    return kc.getHistoricalData(Date.from(rangeFrom.toInstant()), Date.from(rangeTo.toInstant()),
+                        token, interval, continuous, true);
+                } catch (KiteException | IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+    }
+
+    /**
+     * Fetches holdings, positions, margins and orders concurrently, so the snapshot takes about as long as
+     * the slowest call. Each call has its own timeout ({@code kite.execution.call-timeout.<key>}); a call
+     * that fails or times out is left out of the snapshot and reported in {@link PortfolioSnapshot#errors()}.
      */
-    private <T> T executeKiteApiCall(String clientSessionId, String operation, Function<KiteConnect, T> apiCall) {
+    public PortfolioSnapshot getPortfolioSnapshot(String clientSessionId) {
+        // Fail fast on an unknown session rather than returning four identical errors
         validateSession(clientSessionId);
+        long start = System.nanoTime();
+
+        CompletableFuture<ArrayList<Holding>> holdings = forkWithTimeout(KiteEndpoint.HOLDINGS, () -> {
+            try {
+                return getHoldings(clientSessionId);
+            } catch (KiteException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        CompletableFuture<Map<String, List<Position>>> positions =
+            forkWithTimeout(KiteEndpoint.POSITIONS, () -> getPositions(clientSessionId));
+        CompletableFuture<Map<String, Margin>> margins =
+            forkWithTimeout(KiteEndpoint.MARGINS, () -> getMargins(clientSessionId));
+        CompletableFuture<List<Order>> orders =
+            forkWithTimeout(KiteEndpoint.ORDERS, () -> getOrders(clientSessionId));
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        PortfolioSnapshot snapshot = new PortfolioSnapshot(
+            joinPart(KiteEndpoint.HOLDINGS, holdings, clientSessionId, errors),
+            joinPart(KiteEndpoint.POSITIONS, positions, clientSessionId, errors),
+            joinPart(KiteEndpoint.MARGINS, margins, clientSessionId, errors),
+            joinPart(KiteEndpoint.ORDERS, orders, clientSessionId, errors),
+            errors,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.debug("Assembled portfolio snapshot for client session {} in {} ms ({} failed parts)",
+                  clientSessionId, snapshot.elapsedMillis(), errors.size());
+        return snapshot;
+    }
+
+    /**
+     * Loads holdings, positions and margins into the response cache in the background, e.g. right after
+     * login, so the first tool calls are served warm or join the in-flight fetch. Failures are only
+     * logged; the tools fetch again on demand.
+     */
+    public void prewarm(String clientSessionId) {
+        log.debug("Prewarming portfolio cache for client session: {}", clientSessionId);
+        prewarmPart(KiteEndpoint.HOLDINGS, clientSessionId, forkWithTimeout(KiteEndpoint.HOLDINGS, () -> {
+            try {
+                return getHoldings(clientSessionId);
+            } catch (KiteException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        }));
+        prewarmPart(KiteEndpoint.POSITIONS, clientSessionId,
+            forkWithTimeout(KiteEndpoint.POSITIONS, () -> getPositions(clientSessionId)));
+        prewarmPart(KiteEndpoint.MARGINS, clientSessionId,
+            forkWithTimeout(KiteEndpoint.MARGINS, () -> getMargins(clientSessionId)));
+    }
+
+    private void prewarmPart(KiteEndpoint endpoint, String clientSessionId, CompletableFuture<?> part) {
+        part.whenComplete((value, error) -> {
+            if (error != null) {
+                log.debug("Could not prewarm {} for client session {}: {}", endpoint.key(), clientSessionId,
+                          error.getMessage());
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> forkWithTimeout(KiteEndpoint endpoint, Supplier<T> call) {
+        Duration timeout = kiteProperties.getExecution().callTimeoutFor(endpoint.key());
+        // Forked rather than submitted: the snapshot waits for its legs and may itself run on the executor.
+        // The deadline makes the abandoned call give up too, instead of holding its thread until Kite answers
+        return callExecutor.fork(() -> KiteDeadline.within(timeout, call))
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private <T> T joinPart(KiteEndpoint endpoint, CompletableFuture<T> part, String clientSessionId,
+                           Map<String, String> errors) {
+        try {
+            return part.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            String error = cause instanceof TimeoutException
+                ? "Timed out after " + kiteProperties.getExecution().callTimeoutFor(endpoint.key()).toMillis() + " ms"
+                : cause.getMessage();
+            log.warn("Portfolio snapshot could not {} for client session {}: {}", endpoint.getOperation(),
+                     clientSessionId, error);
+            errors.put(endpoint.key(), error);
+            return null;
+        }
+    }
+
+    /**
+     * Helper method to execute authenticated Kite API calls with proper session handling
+     */
+    private <T> T executeKiteApiCall(String clientSessionId, KiteEndpoint endpoint, Function<KiteConnect, T> apiCall) {
+        return invokeKiteApi(validateSession(clientSessionId), endpoint, apiCall);
+    }
+
+    /**
+     * Same as {@link #executeKiteApiCall} but served through the per-session response cache.
+     * The session is validated on every call so cached data is never returned to an expired session.
+     */
+    private <T> T executeCachedKiteApiCall(String clientSessionId, KiteEndpoint endpoint, String cacheKey,
+                                           Function<KiteConnect, T> apiCall) {
+        SessionData session = validateSession(clientSessionId);
+        return responseCache.get(clientSessionId, endpoint, cacheKey, () -> invokeKiteApi(session, endpoint, apiCall));
+    }
+
+    private <T> T invokeKiteApi(SessionData session, KiteEndpoint endpoint, Function<KiteConnect, T> apiCall) {
+        String clientSessionId = session.getSessionId();
+        String operation = endpoint.getOperation();
         try {
             log.debug("Performing Kite API operation '{}' for client session: {}", operation, clientSessionId);
-            String accessToken = sessionManager.getAccessToken(clientSessionId);
-            kiteConnect.setAccessToken(accessToken);
-            return apiCall.apply(kiteConnect);
+            KiteConnect client = clientRegistry.getClient(session);
+            // Every attempt, including retries and hedges, takes its own rate limit slot and concurrency permit
+            return callGuard.call(endpoint, () -> {
+                PhaseTimer queued = phaseTimers.start(Phase.QUEUE);
+                try {
+                    rateLimiter.acquire(endpoint, session.getAccessToken());
+                    return concurrencyLimiter.call(endpoint, () -> {
+                        queued.stop(clientSessionId, operation);
+                        return timedCall(endpoint, clientSessionId, client, apiCall);
+                    });
+                } finally {
+                    // Waits that end in a rejection count too; after a granted permit this does nothing
+                    queued.stop(clientSessionId, operation);
+                }
+            });
+        } catch (RateLimitExceededException | CircuitOpenException | DeadlineExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             if (e.getCause() instanceof KiteException) {
+                metrics.recordKiteError(((KiteException) e.getCause()).code);
                 handleKiteException(operation, clientSessionId, (KiteException) e.getCause());
             } else if (e.getCause() instanceof IOException) {
                 handleIOException(operation, clientSessionId, (IOException) e.getCause());
@@ -83,12 +339,38 @@ public class KiteService {
         }
     }
 
-    private void validateSession(String clientSessionId) {
-        if (!sessionManager.isAuthenticated(clientSessionId)) {
+    private <T> T timedCall(KiteEndpoint endpoint, String clientSessionId, KiteConnect client,
+                            Function<KiteConnect, T> apiCall) {
+        PhaseTimer timer = phaseTimers.start(Phase.UPSTREAM);
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = apiCall.apply(client);
+            succeeded = true;
+            return result;
+        } finally {
+            metrics.recordUpstreamCall(endpoint, System.nanoTime() - start, succeeded);
+            timer.stop(clientSessionId, endpoint.getOperation());
+        }
+    }
+
+    private SessionData validateSession(String clientSessionId) {
+        PhaseTimer timer = phaseTimers.start(Phase.SESSION);
+        try {
+            return checkSession(clientSessionId);
+        } finally {
+            timer.stop(clientSessionId, PhaseTimer.currentTool());
+        }
+    }
+
+    private SessionData checkSession(String clientSessionId) {
+        SessionData session = sessionManager.getSession(clientSessionId);
+        if (!session.isAuthenticated()) {
             String error = "Not authenticated with Kite. Please login first.";
             log.error("Session validation failed for client session {}: {}", clientSessionId, error);
             throw new SessionNotFoundException(error);
         }
+        return session;
     }
 
     private void handleKiteException(String operation, String clientSessionId, KiteException e) {
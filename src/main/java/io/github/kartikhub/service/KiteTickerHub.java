@@ -0,0 +1,439 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.exception.SessionNotFoundException;
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.session.KiteSessionManager;
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+import io.github.kartikhub.session.SessionListener;
+
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Tick;
+import com.zerodhatech.ticker.KiteTicker;
+import com.zerodhatech.ticker.OnError;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multiplexes Kite's streaming ticker across MCP sessions.
+ * <p>
+ * Each Kite user gets at most one {@link KiteTicker} WebSocket, shared by all of that user's client
+ * sessions. Instrument subscriptions are reference-counted per session, so an instrument stays
+ * subscribed while any session still wants it and the connection is closed once none do. Ticks are
+ * written by the ticker's thread into a fixed-size ring buffer per instrument, and readers take the
+ * latest ticks from the ring without locking.
+ */
+@Slf4j
+@Component
+public class KiteTickerHub implements SessionListener {
+    private static final long WAIT_POLL_NANOS = Duration.ofMillis(10).toNanos();
+
+    private final KiteProperties kiteProperties;
+    private final KiteProperties.Ticker config;
+    private final KiteSessionManager sessionManager;
+
+    // Keyed by Kite user id
+    private final Map<String, UserStream> streams = new ConcurrentHashMap<>();
+    // Client session id -> Kite user id, for sessions holding subscriptions
+    private final Map<String, String> sessionUsers = new ConcurrentHashMap<>();
+
+    public KiteTickerHub(KiteProperties kiteProperties, KiteSessionManager sessionManager) {
+        this.kiteProperties = kiteProperties;
+        this.config = kiteProperties.getTicker();
+        this.sessionManager = sessionManager;
+    }
+
+    /**
+     * Subscribes the session to the given instrument tokens, connecting the user's ticker if needed.
+     */
+    public void subscribe(String sessionId, Collection<Long> instrumentTokens) {
+        SessionData session = authenticatedSession(sessionId);
+        String previousUser = sessionUsers.put(sessionId, session.getUserId());
+        try {
+            while (true) {
+                UserStream stream = streams.computeIfAbsent(session.getUserId(),
+                    userId -> new UserStream(userId, session.getAccessToken()));
+                if (stream.acquire(sessionId, instrumentTokens)) {
+                    return;
+                }
+                // The stream closed between lookup and acquire; retry with a fresh one
+            }
+        } catch (RuntimeException e) {
+            // Nothing was subscribed; a session without earlier subscriptions must not stay mapped
+            if (previousUser == null) {
+                sessionUsers.remove(sessionId, session.getUserId());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the session's interest in the given tokens, or in all of its tokens when {@code instrumentTokens} is null.
+     */
+    public void unsubscribe(String sessionId, Collection<Long> instrumentTokens) {
+        String userId = sessionUsers.get(sessionId);
+        if (userId == null) {
+            return;
+        }
+        // No stream left means its subscriptions were dropped already, e.g. after a failed reconnect
+        UserStream stream = streams.get(userId);
+        if (stream == null || stream.release(sessionId, instrumentTokens)) {
+            sessionUsers.remove(sessionId, userId);
+        }
+    }
+
+    /**
+     * Latest ticks per instrument, oldest first, at most {@code count} each. Instruments without ticks yet map to an empty list.
+     */
+    public Map<Long, List<LiveTick>> latestTicks(String sessionId, Collection<Long> instrumentTokens, int count) {
+        UserStream stream = streamFor(sessionId);
+        Map<Long, List<LiveTick>> ticks = new LinkedHashMap<>();
+        for (Long token : instrumentTokens) {
+            TickRing ring = stream == null ? null : stream.rings.get(token);
+            ticks.put(token, ring == null ? List.of() : ring.latest(count));
+        }
+        return ticks;
+    }
+
+    /**
+     * Waits until every given instrument has received at least one tick, or the timeout elapses.
+     */
+    public void awaitFirstTicks(String sessionId, Collection<Long> instrumentTokens, Duration timeout) {
+        UserStream stream = streamFor(sessionId);
+        if (stream == null) {
+            return;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() - deadline < 0 && !Thread.currentThread().isInterrupted()) {
+            boolean ready = true;
+            for (Long token : instrumentTokens) {
+                TickRing ring = stream.rings.get(token);
+                if (ring == null || ring.isEmpty()) {
+                    ready = false;
+                    break;
+                }
+            }
+            if (ready) {
+                return;
+            }
+            LockSupport.parkNanos(WAIT_POLL_NANOS);
+        }
+    }
+
+    public int getConnectionCount() {
+        return streams.size();
+    }
+
+    public int getSubscriptionCount() {
+        return streams.values().stream().mapToInt(stream -> stream.rings.size()).sum();
+    }
+
+    @Override
+    public void sessionAuthenticated(SessionData session) {
+        // A new login issues a new access token; move the user's connection over to it. The reconnect
+        // itself runs in the background, and nothing here may fail the login or skip the other listeners.
+        UserStream stream = streams.get(session.getUserId());
+        if (stream != null) {
+            try {
+                stream.reconnectWith(session.getAccessToken());
+            } catch (RuntimeException e) {
+                log.warn("Could not move the Kite ticker of user {} to the new login: {}",
+                    session.getUserId(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void sessionRemoved(String sessionId) {
+        unsubscribe(sessionId, null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.values().forEach(UserStream::close);
+        streams.clear();
+    }
+
+    private UserStream streamFor(String sessionId) {
+        String userId = sessionUsers.get(sessionId);
+        return userId == null ? null : streams.get(userId);
+    }
+
+    private SessionData authenticatedSession(String sessionId) {
+        SessionData session = sessionManager.getSession(sessionId);
+        if (!session.isAuthenticated()) {
+            throw new SessionNotFoundException("Not authenticated with Kite. Please login first.");
+        }
+        return session;
+    }
+
+    /**
+     * One user's ticker connection and subscriptions. Subscription changes are synchronized on the stream;
+     * ticks are delivered on the ticker's own thread.
+     */
+    private final class UserStream {
+        private final String userId;
+        private final Map<Long, TickRing> rings = new ConcurrentHashMap<>();
+        // Guarded by this
+        private final Map<Long, Integer> refCounts = new HashMap<>();
+        private final Map<String, Set<Long>> sessionTokens = new HashMap<>();
+        private String accessToken;
+        private KiteTicker ticker;
+        private boolean closed;
+
+        UserStream(String userId, String accessToken) {
+            this.userId = userId;
+            this.accessToken = accessToken;
+        }
+
+        /**
+         * On failure nothing is subscribed, and a stream left without subscriptions is closed and dropped.
+         *
+         * @return false if the stream has already been closed and must not be used
+         */
+        synchronized boolean acquire(String sessionId, Collection<Long> tokens) {
+            if (closed) {
+                return false;
+            }
+            try {
+                subscribe(sessionId, tokens);
+                return true;
+            } catch (RuntimeException e) {
+                if (refCounts.isEmpty()) {
+                    close();
+                    streams.remove(userId, this);
+                }
+                throw e;
+            }
+        }
+
+        private void subscribe(String sessionId, Collection<Long> tokens) {
+            ArrayList<Long> added = new ArrayList<>();
+            for (Long token : new HashSet<>(tokens)) {
+                if (!refCounts.containsKey(token)) {
+                    added.add(token);
+                }
+            }
+            if (refCounts.size() + added.size() > config.getMaxInstrumentsPerUser()) {
+                throw new IllegalArgumentException(String.format(
+                    "Live ticks are limited to %d instruments per user", config.getMaxInstrumentsPerUser()));
+            }
+            // Subscriptions without a ticker are waiting on a reconnect after a new login; take it over
+            boolean reconnect = ticker == null && !refCounts.isEmpty();
+            if (!added.isEmpty() || reconnect) {
+                ensureConnected();
+                added.forEach(token -> rings.putIfAbsent(token, new TickRing(config.getBufferSize())));
+                ArrayList<Long> subscribed = new ArrayList<>(added);
+                if (reconnect) {
+                    subscribed.addAll(refCounts.keySet());
+                }
+                try {
+                    ticker.subscribe(subscribed);
+                    ticker.setMode(subscribed, config.getMode());
+                } catch (RuntimeException e) {
+                    added.forEach(rings::remove);
+                    throw e;
+                }
+                log.debug("Subscribed user {} to {} instruments", userId, added.size());
+            }
+
+            Set<Long> sessionSet = sessionTokens.computeIfAbsent(sessionId, id -> new HashSet<>());
+            for (Long token : tokens) {
+                if (sessionSet.add(token)) {
+                    refCounts.merge(token, 1, Integer::sum);
+                }
+            }
+        }
+
+        /**
+         * @return true if the session no longer holds any subscription on this stream
+         */
+        synchronized boolean release(String sessionId, Collection<Long> tokens) {
+            Set<Long> held = sessionTokens.get(sessionId);
+            if (held == null) {
+                return true;
+            }
+            ArrayList<Long> removed = new ArrayList<>();
+            for (Long token : tokens == null ? List.copyOf(held) : tokens) {
+                if (held.remove(token) && refCounts.merge(token, -1, Integer::sum) == 0) {
+                    refCounts.remove(token);
+                    rings.remove(token);
+                    removed.add(token);
+                }
+            }
+            if (held.isEmpty()) {
+                sessionTokens.remove(sessionId);
+            }
+            if (refCounts.isEmpty()) {
+                close();
+                streams.remove(userId, this);
+            } else if (!removed.isEmpty() && ticker != null && ticker.isConnectionOpen()) {
+                ticker.unsubscribe(removed);
+                log.debug("Unsubscribed user {} from {} instruments", userId, removed.size());
+            }
+            return held.isEmpty();
+        }
+
+        /**
+         * Drops the connection made with the old access token and reconnects in the background, since
+         * connecting blocks and this runs on the login's thread.
+         */
+        synchronized void reconnectWith(String newAccessToken) {
+            if (closed || newAccessToken == null || newAccessToken.equals(accessToken)) {
+                return;
+            }
+            accessToken = newAccessToken;
+            if (ticker != null) {
+                disconnect(ticker);
+                ticker = null;
+                if (!refCounts.isEmpty()) {
+                    Thread.ofVirtual().name("kite-ticker-reconnect-" + userId).start(this::resubscribe);
+                }
+            }
+        }
+
+        /**
+         * Reconnects and restores every subscription, unless a subscribe got there first. If the ticker
+         * cannot be reached the stream is closed and dropped, so the next subscribe builds a fresh one.
+         */
+        private synchronized void resubscribe() {
+            if (closed || ticker != null || refCounts.isEmpty()) {
+                return;
+            }
+            try {
+                ensureConnected();
+                ArrayList<Long> tokens = new ArrayList<>(refCounts.keySet());
+                ticker.subscribe(tokens);
+                ticker.setMode(tokens, config.getMode());
+            } catch (RuntimeException e) {
+                log.warn("Could not reconnect the Kite ticker for user {}, dropping its subscriptions: {}",
+                    userId, e.getMessage());
+                close();
+                streams.remove(userId, this);
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            rings.clear();
+            if (ticker != null) {
+                disconnect(ticker);
+                ticker = null;
+            }
+        }
+
+        private void ensureConnected() {
+            if (ticker != null) {
+                return;
+            }
+            KiteTicker newTicker = new KiteTicker(accessToken, kiteProperties.getApiKey());
+            newTicker.setOnTickerArrivalListener(this::onTicks);
+            newTicker.setOnConnectedListener(() -> log.info("Kite ticker connected for user {}", userId));
+            newTicker.setOnDisconnectedListener(() -> log.info("Kite ticker disconnected for user {}", userId));
+            newTicker.setOnErrorListener(new OnError() {
+                public void onError(Exception exception) {
+                    log.warn("Kite ticker error for user {}: {}", userId, exception.getMessage());
+                }
+
+                public void onError(KiteException kiteException) {
+                    log.warn("Kite ticker error for user {}: {}", userId, kiteException.getMessage());
+                }
+
+                public void onError(String error) {
+                    log.warn("Kite ticker error for user {}: {}", userId, error);
+                }
+            });
+            try {
+                newTicker.setTryReconnection(true);
+                newTicker.setMaximumRetries(config.getMaxReconnectRetries());
+                newTicker.setMaximumRetryInterval(config.getMaxReconnectIntervalSeconds());
+            } catch (KiteException e) {
+                log.warn("Could not configure Kite ticker reconnection for user {}: {}", userId, e.getMessage());
+            }
+            newTicker.connect();
+            if (!newTicker.isConnectionOpen()) {
+                // Otherwise its reconnection attempts would keep running for a ticker nobody holds
+                disconnect(newTicker);
+                throw new IllegalStateException("Could not connect to the Kite ticker. Please try again shortly.");
+            }
+            ticker = newTicker;
+        }
+
+        private void onTicks(ArrayList<Tick> ticks) {
+            for (Tick tick : ticks) {
+                TickRing ring = rings.get(tick.getInstrumentToken());
+                if (ring != null) {
+                    ring.add(tick);
+                }
+            }
+        }
+
+        private void disconnect(KiteTicker target) {
+            try {
+                target.setTryReconnection(false);
+            } catch (KiteException e) {
+                // Reconnection only matters while connected; disconnecting below is what counts
+            }
+            target.disconnect();
+        }
+    }
+
+    /**
+     * Fixed-size ring of the most recent ticks for one instrument, written by a single ticker thread.
+     * Readers validate each slot's sequence number, so a slot overwritten mid-read is dropped rather than misreported.
+     */
+    static final class TickRing {
+        private final AtomicReferenceArray<LiveTick> slots;
+        // Number of ticks published so far; the next tick gets this sequence number
+        private final AtomicLong published = new AtomicLong();
+
+        TickRing(int capacity) {
+            this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+        }
+
+        void add(Tick tick) {
+            long sequence = published.get();
+            Date timestamp = tick.getTickTimestamp();
+            slots.set((int) (sequence % slots.length()), new LiveTick(sequence, tick.getInstrumentToken(),
+                tick.getLastTradedPrice(), tick.getChange(), (long) tick.getVolumeTradedToday(), tick.getOpenPrice(),
+                tick.getHighPrice(), tick.getLowPrice(), tick.getClosePrice(),
+                timestamp != null ? timestamp.getTime() : System.currentTimeMillis()));
+            published.lazySet(sequence + 1);
+        }
+
+        boolean isEmpty() {
+            return published.get() == 0;
+        }
+
+        List<LiveTick> latest(int count) {
+            long end = published.get();
+            long start = Math.max(0, end - Math.min(count, slots.length()));
+            List<LiveTick> ticks = new ArrayList<>((int) (end - start));
+            for (long sequence = end - 1; sequence >= start; sequence--) {
+                LiveTick tick = slots.get((int) (sequence % slots.length()));
+                if (tick == null || tick.sequence() != sequence) {
+                    break;
+                }
+                ticks.add(tick);
+            }
+            Collections.reverse(ticks);
+            return ticks;
+        }
+    }
+}
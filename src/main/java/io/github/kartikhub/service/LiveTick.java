@@ -0,0 +1,11 @@
+package io.github.kartikhub.service;
+
+/**
+ * One tick received from the Kite ticker. Fields that the subscription mode does not carry are zero.
+ *
+ * @param sequence      position of this tick in its instrument's stream, increasing by one per tick
+ * @param timestampMillis exchange timestamp of the tick, or the receive time when Kite does not send one
+ */
+public record LiveTick(long sequence, long instrumentToken, double lastPrice, double change, long volume,
+                       double open, double high, double low, double close, long timestampMillis) {
+}
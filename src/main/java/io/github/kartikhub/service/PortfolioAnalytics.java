@@ -0,0 +1,41 @@
+package io.github.kartikhub.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate view of a holdings snapshot returned by the {@code portfolio_analytics} tool.
+ * Monetary values are in the instruments' trading currency (INR for NSE/BSE).
+ *
+ * @param holdings           number of distinct instruments aggregated; one held in several accounts counts once
+ * @param investedValue      sum of quantity x average price
+ * @param currentValue       sum of quantity x last price
+ * @param totalPnl           sum of the holdings' reported P&amp;L
+ * @param totalPnlPercentage total P&amp;L as a percentage of the invested value
+ * @param dayPnl             sum of quantity x day change
+ * @param dayPnlPercentage   day P&amp;L as a percentage of the previous close value
+ * @param topGainers         holdings with the largest day change percentage, best first
+ * @param topLosers          holdings with the smallest day change percentage, worst first
+ * @param exposureByExchange current value and P&amp;L grouped by exchange
+ * @param exposureByProduct  current value and P&amp;L grouped by product
+ */
+public record PortfolioAnalytics(int holdings, double investedValue, double currentValue, double totalPnl,
+                                 double totalPnlPercentage, double dayPnl, double dayPnlPercentage,
+                                 List<Mover> topGainers, List<Mover> topLosers,
+                                 Map<String, Exposure> exposureByExchange, Map<String, Exposure> exposureByProduct) {
+
+    /**
+     * @param quantity     quantity held across all the accounts aggregated
+     * @param averagePrice weighted average cost: the accounts' average prices weighted by their quantities
+     */
+    public record Mover(String tradingsymbol, String exchange, double quantity, double averagePrice,
+                        double lastPrice, double dayChangePercentage, double dayPnl) {
+    }
+
+    /**
+     * @param holdings number of distinct instruments in the group
+     * @param weight   share of the portfolio's current value, in percent
+     */
+    public record Exposure(int holdings, double currentValue, double weight, double pnl) {
+    }
+}
@@ -0,0 +1,292 @@
+package io.github.kartikhub.service;
+
+import io.github.kartikhub.service.PortfolioAnalytics.Exposure;
+import io.github.kartikhub.service.PortfolioAnalytics.Mover;
+
+import com.zerodhatech.models.Holding;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes {@link PortfolioAnalytics} from a holdings snapshot.
+ * <p>
+ * The snapshot is first copied into columnar primitive arrays (one {@code double[]} per numeric field,
+ * with exchange and product dictionary-encoded to {@code int} codes), with one row per instrument: an
+ * instrument held in several accounts is merged into a single row whose quantity is the sum and whose
+ * average price is weighted by quantity. The aggregation loop then touches
+ * only contiguous primitives. Snapshots larger than {@link #LEAF_SIZE} rows are split into ranges and
+ * aggregated in parallel on the common fork-join pool; partial results are merged pairwise.
+ */
+@Component
+public class PortfolioAnalyzer {
+    static final int LEAF_SIZE = 2048;
+
+    public PortfolioAnalytics analyze(List<Holding> holdings, int topMovers) {
+        Columns columns = Columns.of(holdings);
+        AggregateTask task = new AggregateTask(columns, 0, columns.size, topMovers);
+        Partial total = columns.size > LEAF_SIZE ? ForkJoinPool.commonPool().invoke(task) : task.compute();
+        return total.toAnalytics(columns);
+    }
+
+    /**
+     * Holdings snapshot in columnar form.
+     */
+    private static final class Columns {
+        final int size;
+        final String[] symbols;
+        final int[] exchange;
+        final int[] product;
+        final List<String> exchangeNames = new ArrayList<>();
+        final List<String> productNames = new ArrayList<>();
+        final double[] quantity;
+        final double[] averagePrice;
+        final double[] lastPrice;
+        final double[] pnl;
+        final double[] dayChange;
+        final double[] dayChangePercentage;
+
+        private Columns(int size) {
+            this.size = size;
+            this.symbols = new String[size];
+            this.exchange = new int[size];
+            this.product = new int[size];
+            this.quantity = new double[size];
+            this.averagePrice = new double[size];
+            this.lastPrice = new double[size];
+            this.pnl = new double[size];
+            this.dayChange = new double[size];
+            this.dayChangePercentage = new double[size];
+        }
+
+        static Columns of(List<Holding> holdings) {
+            Map<String, Integer> rows = new HashMap<>();
+            int[] rowOf = new int[holdings.size()];
+            for (int i = 0; i < rowOf.length; i++) {
+                Integer row = rows.putIfAbsent(instrumentKey(holdings.get(i)), rows.size());
+                rowOf[i] = row != null ? row : rows.size() - 1;
+            }
+
+            Columns columns = new Columns(rows.size());
+            Map<String, Integer> exchangeCodes = new HashMap<>();
+            Map<String, Integer> productCodes = new HashMap<>();
+            double[] cost = new double[columns.size];
+            for (int i = 0; i < rowOf.length; i++) {
+                Holding h = holdings.get(i);
+                int row = rowOf[i];
+                if (columns.symbols[row] == null) {
+                    // Prices and day change are per instrument, so the first account's are everyone's
+                    columns.symbols[row] = h.tradingSymbol;
+                    columns.exchange[row] = encode(h.exchange, exchangeCodes, columns.exchangeNames);
+                    columns.product[row] = encode(h.product, productCodes, columns.productNames);
+                    columns.averagePrice[row] = number(h.averagePrice);
+                    columns.lastPrice[row] = number(h.lastPrice);
+                    columns.dayChange[row] = number(h.dayChange);
+                    columns.dayChangePercentage[row] = number(h.dayChangePercentage);
+                }
+                double quantity = number(h.quantity);
+                columns.quantity[row] += quantity;
+                cost[row] += quantity * number(h.averagePrice);
+                columns.pnl[row] += number(h.pnl);
+            }
+            for (int row = 0; row < columns.size; row++) {
+                if (columns.quantity[row] != 0) {
+                    columns.averagePrice[row] = cost[row] / columns.quantity[row];
+                }
+            }
+            return columns;
+        }
+
+        private static String instrumentKey(Holding h) {
+            Object token = h.instrumentToken;
+            return token != null ? token.toString() : h.exchange + ":" + h.tradingSymbol;
+        }
+
+        private static int encode(String value, Map<String, Integer> codes, List<String> names) {
+            return codes.computeIfAbsent(value == null ? "UNKNOWN" : value, name -> {
+                names.add(name);
+                return names.size() - 1;
+            });
+        }
+
+        private static double number(Number value) {
+            return value == null ? 0 : value.doubleValue();
+        }
+    }
+
+    private static final class AggregateTask extends RecursiveTask<Partial> {
+        private final Columns columns;
+        private final int from;
+        private final int to;
+        private final int topMovers;
+
+        AggregateTask(Columns columns, int from, int to, int topMovers) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.topMovers = topMovers;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_SIZE) {
+                return aggregate();
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(columns, from, mid, topMovers);
+            left.fork();
+            Partial right = new AggregateTask(columns, mid, to, topMovers).compute();
+            return left.join().merge(right);
+        }
+
+        private Partial aggregate() {
+            Columns c = columns;
+            Partial p = new Partial(c, topMovers);
+            for (int i = from; i < to; i++) {
+                double qty = c.quantity[i];
+                double value = qty * c.lastPrice[i];
+                double dayPnl = qty * c.dayChange[i];
+                p.invested += qty * c.averagePrice[i];
+                p.current += value;
+                p.pnl += c.pnl[i];
+                p.dayPnl += dayPnl;
+
+                p.exchangeCount[c.exchange[i]]++;
+                p.exchangeValue[c.exchange[i]] += value;
+                p.exchangePnl[c.exchange[i]] += c.pnl[i];
+                p.productCount[c.product[i]]++;
+                p.productValue[c.product[i]] += value;
+                p.productPnl[c.product[i]] += c.pnl[i];
+
+                p.gainers.offer(i);
+                p.losers.offer(i);
+            }
+            return p;
+        }
+    }
+
+    /**
+     * Aggregates over one range of rows; ranges are combined with {@link #merge}.
+     */
+    private static final class Partial {
+        double invested;
+        double current;
+        double pnl;
+        double dayPnl;
+        final int[] exchangeCount;
+        final double[] exchangeValue;
+        final double[] exchangePnl;
+        final int[] productCount;
+        final double[] productValue;
+        final double[] productPnl;
+        final TopN gainers;
+        final TopN losers;
+
+        Partial(Columns columns, int topMovers) {
+            int exchanges = columns.exchangeNames.size();
+            int products = columns.productNames.size();
+            this.exchangeCount = new int[exchanges];
+            this.exchangeValue = new double[exchanges];
+            this.exchangePnl = new double[exchanges];
+            this.productCount = new int[products];
+            this.productValue = new double[products];
+            this.productPnl = new double[products];
+            this.gainers = new TopN(columns.dayChangePercentage, topMovers, true);
+            this.losers = new TopN(columns.dayChangePercentage, topMovers, false);
+        }
+
+        Partial merge(Partial other) {
+            invested += other.invested;
+            current += other.current;
+            pnl += other.pnl;
+            dayPnl += other.dayPnl;
+            for (int i = 0; i < exchangeCount.length; i++) {
+                exchangeCount[i] += other.exchangeCount[i];
+                exchangeValue[i] += other.exchangeValue[i];
+                exchangePnl[i] += other.exchangePnl[i];
+            }
+            for (int i = 0; i < productCount.length; i++) {
+                productCount[i] += other.productCount[i];
+                productValue[i] += other.productValue[i];
+                productPnl[i] += other.productPnl[i];
+            }
+            gainers.merge(other.gainers);
+            losers.merge(other.losers);
+            return this;
+        }
+
+        PortfolioAnalytics toAnalytics(Columns c) {
+            double previousValue = current - dayPnl;
+            return new PortfolioAnalytics(c.size, invested, current, pnl, percentage(pnl, invested), dayPnl,
+                percentage(dayPnl, previousValue), movers(c, gainers), movers(c, losers),
+                exposure(c.exchangeNames, exchangeCount, exchangeValue, exchangePnl),
+                exposure(c.productNames, productCount, productValue, productPnl));
+        }
+
+        private List<Mover> movers(Columns c, TopN top) {
+            List<Mover> movers = new ArrayList<>(top.size);
+            for (int k = 0; k < top.size; k++) {
+                int i = top.rows[k];
+                movers.add(new Mover(c.symbols[i], c.exchangeNames.get(c.exchange[i]), c.quantity[i],
+                    c.averagePrice[i], c.lastPrice[i], c.dayChangePercentage[i], c.quantity[i] * c.dayChange[i]));
+            }
+            return movers;
+        }
+
+        private Map<String, Exposure> exposure(List<String> names, int[] count, double[] value, double[] groupPnl) {
+            Map<String, Exposure> exposure = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                exposure.put(names.get(i), new Exposure(count[i], value[i], percentage(value[i], current), groupPnl[i]));
+            }
+            return exposure;
+        }
+
+        private static double percentage(double part, double whole) {
+            return whole == 0 ? 0 : part * 100 / whole;
+        }
+    }
+
+    /**
+     * Bounded selection of the row indices with the highest (or lowest) key, kept in order.
+     */
+    private static final class TopN {
+        private final double[] keys;
+        private final boolean highest;
+        final int[] rows;
+        int size;
+
+        TopN(double[] keys, int limit, boolean highest) {
+            this.keys = keys;
+            this.highest = highest;
+            this.rows = new int[limit];
+        }
+
+        void offer(int row) {
+            if (rows.length == 0 || (size == rows.length && !ranksBefore(row, rows[size - 1]))) {
+                return;
+            }
+            int position = size == rows.length ? size - 1 : size++;
+            while (position > 0 && ranksBefore(row, rows[position - 1])) {
+                rows[position] = rows[position - 1];
+                position--;
+            }
+            rows[position] = row;
+        }
+
+        void merge(TopN other) {
+            for (int k = 0; k < other.size; k++) {
+                offer(other.rows[k]);
+            }
+        }
+
+        private boolean ranksBefore(int a, int b) {
+            return highest ? keys[a] > keys[b] : keys[a] < keys[b];
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.kartikhub.service;
+
+import com.zerodhatech.models.Holding;
+import com.zerodhatech.models.Margin;
+import com.zerodhatech.models.Order;
+import com.zerodhatech.models.Position;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Complete account view assembled from concurrent Kite calls. A part that failed or timed out is
+ * {@code null} and its reason is reported in {@code errors}, keyed by endpoint (holdings, positions,
+ * margins, orders).
+ *
+ * @param positions     net and day positions, keyed "net" and "day" as returned by Kite
+ * @param margins       equity and commodity margins, keyed by segment
+ * @param orders        the day's orders
+ * @param elapsedMillis wall-clock time taken to assemble the snapshot
+ */
+public record PortfolioSnapshot(List<Holding> holdings, Map<String, List<Position>> positions,
+                                Map<String, Margin> margins, List<Order> orders, Map<String, String> errors,
+                                long elapsedMillis) {
+
+    public boolean isPartial() {
+        return !errors.isEmpty();
+    }
+}
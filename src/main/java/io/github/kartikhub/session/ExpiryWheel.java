@@ -0,0 +1,58 @@
+package io.github.kartikhub.session;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel used to find expired entries without scanning whole maps.
+ * <p>
+ * Keys are placed in the bucket of the tick in which their deadline falls. {@link #advance} only
+ * visits buckets whose tick has fully elapsed, so the work done is proportional to the keys that
+ * have come due rather than to the number of entries. Deadlines are {@link System#nanoTime()} values.
+ * <p>
+ * The wheel only stores keys; callers re-check the real deadline when a key comes due and
+ * reschedule it if the entry has been touched since. A key scheduled concurrently with an advance
+ * may land in a bucket that was just drained and be seen one rotation late, which is harmless as
+ * long as callers also check expiry on access.
+ */
+final class ExpiryWheel<K> {
+    private final long tickNanos;
+    private final Queue<K>[] buckets;
+    private volatile long processedTick;
+
+    @SuppressWarnings("unchecked")
+    ExpiryWheel(Duration tick, Duration horizon) {
+        this.tickNanos = tick.toNanos();
+        int size = (int) (horizon.toNanos() / tickNanos) + 2;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.processedTick = Math.floorDiv(System.nanoTime(), tickNanos);
+    }
+
+    void schedule(K key, long deadlineNanos) {
+        long tick = Math.max(Math.ceilDiv(deadlineNanos, tickNanos), processedTick + 1);
+        buckets[(int) Math.floorMod(tick, buckets.length)].add(key);
+    }
+
+    /**
+     * Hands every key whose bucket has elapsed by {@code nowNanos} to {@code onDue}. Keys rescheduled
+     * from within {@code onDue} land in later buckets.
+     */
+    synchronized void advance(long nowNanos, Consumer<K> onDue) {
+        long nowTick = Math.floorDiv(nowNanos, tickNanos);
+        // After a long pause every bucket is due, but each one only needs to be drained once
+        long fromTick = Math.max(processedTick + 1, nowTick - buckets.length + 1);
+        for (long tick = fromTick; tick <= nowTick; tick++) {
+            processedTick = tick;
+            Queue<K> bucket = buckets[(int) Math.floorMod(tick, buckets.length)];
+            K key;
+            while ((key = bucket.poll()) != null) {
+                onDue.accept(key);
+            }
+        }
+    }
+}
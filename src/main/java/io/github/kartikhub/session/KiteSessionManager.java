@@ -2,14 +2,16 @@ package io.github.kartikhub.session;
 
 import io.github.kartikhub.exception.SessionNotFoundException;
 import lombok.Data;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.time.Instant;
 import java.time.Duration;
 
 /**
@@ -21,10 +23,22 @@ public class KiteSessionManager {
     private static final Logger log = LoggerFactory.getLogger(KiteSessionManager.class);
     private static final Duration SESSION_TIMEOUT = Duration.ofHours(6);
     private static final Duration TOKEN_EXPIRY = Duration.ofMinutes(5);
+    private static final long SESSION_TIMEOUT_NANOS = SESSION_TIMEOUT.toNanos();
+    private static final long TOKEN_EXPIRY_NANOS = TOKEN_EXPIRY.toNanos();
+    // Expired entries are removed within one sweep interval of their deadline
+    private static final Duration SESSION_SWEEP_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration TOKEN_SWEEP_INTERVAL = Duration.ofSeconds(5);
 
     // Thread-safe maps to store session data and token mappings
     private final Map<String, SessionData> sessions = new ConcurrentHashMap<>();
     private final Map<String, TokenMapping> tokenMappings = new ConcurrentHashMap<>();
+    private final ExpiryWheel<String> sessionExpiry = new ExpiryWheel<>(SESSION_SWEEP_INTERVAL, SESSION_TIMEOUT);
+    private final ExpiryWheel<String> tokenExpiry = new ExpiryWheel<>(TOKEN_SWEEP_INTERVAL, TOKEN_EXPIRY);
+    private final ObjectProvider<SessionListener> listeners;
+
+    public KiteSessionManager(ObjectProvider<SessionListener> listeners) {
+        this.listeners = listeners;
+    }
 
     @Data
     public static class SessionData {
@@ -32,37 +46,54 @@ public class KiteSessionManager {
         private String accessToken;
         private final String userId;
         private boolean authenticated;
-        private Instant lastAccessed;
+        // System.nanoTime() of the last access; kept primitive so touch() does not allocate
+        private volatile long lastAccessedNanos;
 
         public SessionData(String sessionId, String accessToken, String userId) {
             this.sessionId = sessionId;
             this.accessToken = accessToken;
             this.userId = userId;
             this.authenticated = false;
-            this.lastAccessed = Instant.now();
+            this.lastAccessedNanos = System.nanoTime();
         }
 
         public void touch() {
-            this.lastAccessed = Instant.now();
+            this.lastAccessedNanos = System.nanoTime();
+        }
+
+        public long expiresAtNanos() {
+            return lastAccessedNanos + SESSION_TIMEOUT_NANOS;
         }
 
         public boolean isExpired() {
-            return Duration.between(lastAccessed, Instant.now()).compareTo(SESSION_TIMEOUT) > 0;
+            return isExpired(System.nanoTime());
+        }
+
+        public boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos() > 0;
         }
     }
 
     @Data
     public static class TokenMapping {
         private final String clientSessionId;
-        private final Instant createdAt;
+        private final long createdAtNanos;
 
         public TokenMapping(String clientSessionId) {
             this.clientSessionId = clientSessionId;
-            this.createdAt = Instant.now();
+            this.createdAtNanos = System.nanoTime();
+        }
+
+        public long expiresAtNanos() {
+            return createdAtNanos + TOKEN_EXPIRY_NANOS;
         }
 
         public boolean isExpired() {
-            return Duration.between(createdAt, Instant.now()).compareTo(TOKEN_EXPIRY) > 0;
+            return isExpired(System.nanoTime());
+        }
+
+        public boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos() > 0;
         }
     }
 
@@ -79,7 +110,49 @@ public class KiteSessionManager {
         }
 
         log.debug("Creating new session for user: {} with session ID: {}", userId, sessionId);
-        sessions.put(sessionId, new SessionData(sessionId, accessToken, userId));
+        SessionData session = new SessionData(sessionId, accessToken, userId);
+        sessions.put(sessionId, session);
+        sessionExpiry.schedule(sessionId, session.expiresAtNanos());
+        listeners.orderedStream().forEach(listener -> listener.sessionCreated(session));
+    }
+
+    /**
+     * Restores a previously persisted session without notifying listeners.
+     * Sessions that have been idle for longer than the session timeout are ignored.
+     */
+    public void restoreSession(String sessionId, String accessToken, String userId, boolean authenticated,
+                               Duration idle) {
+        SessionData session = new SessionData(sessionId, accessToken, userId);
+        session.setAuthenticated(authenticated);
+        session.setLastAccessedNanos(System.nanoTime() - idle.toNanos());
+        if (session.isExpired()) {
+            log.debug("Skipping restore of expired session: {}", sessionId);
+            return;
+        }
+        sessions.put(sessionId, session);
+        sessionExpiry.schedule(sessionId, session.expiresAtNanos());
+    }
+
+    public Collection<SessionData> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public int getAuthenticatedSessionCount() {
+        int count = 0;
+        for (SessionData session : sessions.values()) {
+            if (session.isAuthenticated()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getTokenMappingCount() {
+        return tokenMappings.size();
     }
 
     public SessionData getSession(String sessionId) {
@@ -96,7 +169,9 @@ public class KiteSessionManager {
 
         if (session.isExpired()) {
             log.debug("Session expired: {}", sessionId);
-            removeSession(sessionId);
+            if (sessions.remove(sessionId, session)) {
+                listeners.orderedStream().forEach(listener -> listener.sessionExpired(sessionId));
+            }
             throw new SessionNotFoundException("Session expired: " + sessionId);
         }
 
@@ -106,7 +181,9 @@ public class KiteSessionManager {
 
     public void removeSession(String sessionId) {
         log.debug("Removing session: {}", sessionId);
-        sessions.remove(sessionId);
+        if (sessions.remove(sessionId) != null) {
+            listeners.orderedStream().forEach(listener -> listener.sessionRemoved(sessionId));
+        }
     }
 
     public boolean isAuthenticated(String sessionId) {
@@ -118,6 +195,9 @@ public class KiteSessionManager {
         SessionData session = getSession(sessionId);
         session.setAuthenticated(authenticated);
         log.debug("Session {} authentication status set to: {}", sessionId, authenticated);
+        if (authenticated) {
+            listeners.orderedStream().forEach(listener -> listener.sessionAuthenticated(session));
+        }
     }
 
     public String getUserId(String sessionId) {
@@ -132,7 +212,9 @@ public class KiteSessionManager {
 
     public void storeTokenMapping(String requestToken, String clientSessionId) {
         log.debug("Storing token mapping: requestToken={}, clientSessionId={}", requestToken, clientSessionId);
-        tokenMappings.put(requestToken, new TokenMapping(clientSessionId));
+        TokenMapping mapping = new TokenMapping(clientSessionId);
+        tokenMappings.put(requestToken, mapping);
+        tokenExpiry.schedule(requestToken, mapping.expiresAtNanos());
     }
 
     public String getClientSessionIdFromToken(String requestToken) {
@@ -151,9 +233,8 @@ public class KiteSessionManager {
             throw new SessionNotFoundException("Session ID is missing. Please login again.");
         }
 
-        boolean hasValidSession = sessions.containsKey(clientSessionId) &&
-                                 !sessions.get(clientSessionId).isExpired() &&
-                                 sessions.get(clientSessionId).isAuthenticated();
+        SessionData session = sessions.get(clientSessionId);
+        boolean hasValidSession = session != null && !session.isExpired() && session.isAuthenticated();
 
         if (!hasValidSession) {
             log.error("No valid session found for clientSessionId: {}", clientSessionId);
@@ -163,43 +244,54 @@ public class KiteSessionManager {
 
     // Cleanup schedules
 
-    @Scheduled(fixedRate = 3600000) // Run every hour
+    @Scheduled(fixedRate = 60000) // Run every minute, matching SESSION_SWEEP_INTERVAL
     public void cleanupExpiredSessions() {
-        log.info("Running session cleanup job");
-        int beforeSize = sessions.size();
-
-        sessions.entrySet()
-            .removeIf(entry -> {
-                boolean expired = entry.getValue().isExpired();
-                if (expired) {
-                    log.debug("Cleaning up expired session: {}", entry.getKey());
-                }
-                return expired;
-            });
-
-        int removedCount = beforeSize - sessions.size();
-        if (removedCount > 0) {
+        long now = System.nanoTime();
+        int[] removedCount = {0};
+
+        sessionExpiry.advance(now, sessionId -> {
+            SessionData session = sessions.get(sessionId);
+            if (session == null) {
+                return;
+            }
+            if (!session.isExpired(now)) {
+                // Touched since it was scheduled; check again at its new deadline
+                sessionExpiry.schedule(sessionId, session.expiresAtNanos());
+            } else if (sessions.remove(sessionId, session)) {
+                log.debug("Cleaning up expired session: {}", sessionId);
+                removedCount[0]++;
+                listeners.orderedStream().forEach(listener -> listener.sessionExpired(sessionId));
+            }
+        });
+
+        if (removedCount[0] > 0) {
             log.info("Session cleanup complete. Removed {} expired sessions. {} active sessions remaining.",
-                     removedCount, sessions.size());
+                     removedCount[0], sessions.size());
         }
     }
 
-    @Scheduled(fixedRate = 60000) // Run every minute
+    @Scheduled(fixedRate = 5000) // Run every 5 seconds, matching TOKEN_SWEEP_INTERVAL
     public void cleanupExpiredTokens() {
-        int beforeSize = tokenMappings.size();
+        long now = System.nanoTime();
+        int[] removedCount = {0};
 
-        tokenMappings.entrySet().removeIf(entry -> {
-            boolean expired = entry.getValue().isExpired();
-            if (expired) {
-                log.debug("Removing expired token mapping for requestToken: {}", entry.getKey());
+        tokenExpiry.advance(now, requestToken -> {
+            TokenMapping mapping = tokenMappings.get(requestToken);
+            if (mapping == null) {
+                return;
+            }
+            if (!mapping.isExpired(now)) {
+                // Replaced by a newer mapping since it was scheduled
+                tokenExpiry.schedule(requestToken, mapping.expiresAtNanos());
+            } else if (tokenMappings.remove(requestToken, mapping)) {
+                log.debug("Removing expired token mapping for requestToken: {}", requestToken);
+                removedCount[0]++;
             }
-            return expired;
         });
 
-        int removedCount = beforeSize - tokenMappings.size();
-        if (removedCount > 0) {
+        if (removedCount[0] > 0) {
             log.info("Token cleanup complete. Removed {} expired tokens. {} active tokens remaining.",
-                     removedCount, tokenMappings.size());
+                     removedCount[0], tokenMappings.size());
         }
     }
 }
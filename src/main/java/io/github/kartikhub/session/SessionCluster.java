@@ -0,0 +1,221 @@
+package io.github.kartikhub.session;
+
+import io.github.kartikhub.properties.KiteProperties;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Membership, session ownership and node-to-node transport for clustered mode.
+ * <p>
+ * Nodes are identified by their base URL ({@code kite.cluster.self-url} and {@code kite.cluster.peers}).
+ * Every node builds the same consistent-hash ring from that list, with {@code kite.cluster.virtual-nodes}
+ * points per node, so all nodes agree on the owner of a client session ID without coordinating, and
+ * adding a node only moves the sessions that now hash to it. Membership is static: a node that is down
+ * keeps its share of the ring, and requests routed to it are handled locally instead.
+ * <p>
+ * Internal requests carry an HMAC-SHA256 signature over a timestamp, the request line and the body,
+ * keyed by {@code kite.cluster.secret}. Replicated events include access tokens, so peers should only
+ * talk over a private network or TLS.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kite.cluster", name = "enabled", havingValue = "true")
+public class SessionCluster {
+    public static final String NODE_HEADER = "X-Kite-Cluster-Node";
+    public static final String TIMESTAMP_HEADER = "X-Kite-Cluster-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Kite-Cluster-Signature";
+    // Set on requests another node has already routed, so they are never forwarded twice
+    public static final String FORWARDED_HEADER = "X-Kite-Cluster-Forwarded";
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+    private static final String HMAC = "HmacSHA256";
+
+    private final String self;
+    private final List<String> peers;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final Map<String, String> nodesById = new HashMap<>();
+    private final SecretKeySpec key;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+
+    public SessionCluster(KiteProperties kiteProperties) {
+        KiteProperties.Cluster config = kiteProperties.getCluster();
+        this.self = normalize(config.getSelfUrl());
+        Set<String> others = new LinkedHashSet<>();
+        for (String peer : config.getPeers()) {
+            if (peer != null && !peer.isBlank() && !normalize(peer).equals(self)) {
+                others.add(normalize(peer));
+            }
+        }
+        this.peers = List.copyOf(others);
+        int virtualNodes = Math.max(1, config.getVirtualNodes());
+        for (String node : getNodes()) {
+            nodesById.put(idOf(node), node);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+        this.key = new SecretKeySpec(secret(config.getSecret(), kiteProperties.getApiSecret()), HMAC);
+        this.requestTimeout = config.getRequestTimeout();
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        log.info("Cluster node {} started with peers {}", self, peers);
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public List<String> getPeers() {
+        return peers;
+    }
+
+    public List<String> getNodes() {
+        List<String> nodes = new ArrayList<>(peers.size() + 1);
+        nodes.add(self);
+        nodes.addAll(peers);
+        return nodes;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Short identifier of {@code node} that every node derives alike, for naming it in URLs handed to clients.
+     */
+    public String idOf(String node) {
+        return Long.toHexString(hash(node));
+    }
+
+    /**
+     * The node with the given {@link #idOf identifier}, or null if it is not a member.
+     */
+    public String nodeById(String id) {
+        return id == null ? null : nodesById.get(id);
+    }
+
+    public String ownerOf(String sessionId) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(sessionId));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    public boolean isSelf(String node) {
+        return self.equals(node);
+    }
+
+    /**
+     * Sends a signed request to an internal endpoint on {@code node}.
+     */
+    public CompletableFuture<HttpResponse<byte[]>> send(String node, String method, String path, byte[] body) {
+        String timestamp = Long.toString(System.currentTimeMillis());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(node + path))
+            .timeout(requestTimeout)
+            .header(NODE_HEADER, self)
+            .header(TIMESTAMP_HEADER, timestamp)
+            .header(SIGNATURE_HEADER, sign(timestamp, method, path, body))
+            .header("Content-Type", "application/json")
+            .method(method, body.length == 0
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Replays a client request on {@code node}, marked so that node handles it itself.
+     */
+    public CompletableFuture<HttpResponse<byte[]>> forward(String node, String method, String pathAndQuery, byte[] body,
+                                                           String contentType, Duration timeout) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(node + pathAndQuery))
+            .timeout(timeout)
+            .header(NODE_HEADER, self)
+            .header(FORWARDED_HEADER, "true")
+            .method(method, body == null || body.length == 0
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Checks the signature of an internal request, rejecting stale timestamps to limit replays.
+     */
+    public boolean verify(String method, String path, String timestamp, String signature, byte[] body) {
+        if (timestamp == null || signature == null) {
+            return false;
+        }
+        try {
+            if (Math.abs(System.currentTimeMillis() - Long.parseLong(timestamp)) > MAX_CLOCK_SKEW.toMillis()) {
+                return false;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        byte[] expected = sign(timestamp, method, path, body).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String sign(String timestamp, String method, String path, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            mac.update((timestamp + "\n" + method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign cluster request", e);
+        }
+    }
+
+    private static long hash(String value) {
+        try {
+            // Only needs to spread well and match across nodes; String.hashCode clusters similar IDs
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static byte[] secret(String configuredSecret, String apiSecret) {
+        if (configuredSecret != null && !configuredSecret.isBlank()) {
+            return configuredSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                .digest(("kite-cluster:" + apiSecret).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive cluster secret", e);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package io.github.kartikhub.session;
+
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * File-backed journal of session events so sessions survive a restart.
+ * <p>
+ * Session create, authenticate and remove events are appended to a memory-mapped log. At startup the
+ * log is replayed into {@link KiteSessionManager} and immediately compacted to one record per live
+ * session; compaction also runs periodically and whenever the mapped region fills up. If replay runs
+ * past {@code kite.session-store.replay-timeout}, startup goes on with the sessions restored so far and
+ * the remaining records are replayed on a background thread, skipping sessions that changed in the
+ * meantime; compaction waits for that to finish, so no record is lost. Access tokens are encrypted with
+ * AES-GCM before they are written.
+ * <p>
+ * Each record is {@code [int length][body][int crc32(body)]}; a zero length marks the end of the log
+ * and a CRC mismatch is treated as a torn write at the tail.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kite.session-store", name = "enabled", havingValue = "true")
+public class SessionJournal implements SessionListener {
+    private static final byte SESSION_RECORD = 1;
+    private static final byte REMOVED_RECORD = 2;
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final KiteSessionManager sessionManager;
+    private final KiteProperties.SessionStore config;
+    private final Path path;
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+
+    // Guarded by this
+    private MappedByteBuffer buffer;
+    // Set while records that replay ran out of time for are restored in the background; the journal then
+    // holds records that are not in memory, so it is not compacted
+    private boolean truncated;
+    // While truncated, sessions changed since startup; their state in memory is newer than the journal's
+    private Set<String> touched;
+    private Thread backgroundReplay;
+
+    private record PersistedSession(String sessionId, String userId, String accessToken, boolean authenticated,
+                                    long lastAccessedMillis) {
+    }
+
+    public SessionJournal(KiteSessionManager sessionManager, KiteProperties kiteProperties) {
+        this.sessionManager = sessionManager;
+        this.config = kiteProperties.getSessionStore();
+        this.path = Path.of(config.getPath());
+        this.key = encryptionKey(config.getEncryptionKey(), kiteProperties.getApiSecret());
+    }
+
+    @PostConstruct
+    public synchronized void replay() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        long started = System.nanoTime();
+        long deadline = started + config.getReplayTimeout().toNanos();
+        Map<String, PersistedSession> live = new LinkedHashMap<>();
+        MappedByteBuffer existing = null;
+        Set<String> removed = new HashSet<>();
+        List<byte[]> tail = new ArrayList<>();
+
+        if (Files.exists(path)) {
+            existing = map(path, Math.max(Files.size(path), capacity()));
+            int records = 0;
+            while (existing.remaining() >= 4) {
+                int start = existing.position();
+                int length = existing.getInt();
+                if (length <= 0 || length > existing.remaining() - 4) {
+                    existing.position(start);
+                    break;
+                }
+                byte[] body = new byte[length];
+                existing.get(body);
+                if (existing.getInt() != crc(body)) {
+                    log.warn("Session journal has a corrupt record at offset {}; ignoring the rest", start);
+                    existing.position(start);
+                    break;
+                }
+                if (!truncated && (records & 1023) == 0 && System.nanoTime() - deadline >= 0) {
+                    log.warn("Session journal replay exceeded {}; restoring the remaining records in the background",
+                             config.getReplayTimeout());
+                    truncated = true;
+                }
+                if (truncated) {
+                    // Still walked, so new records are appended after the last one rather than over it
+                    tail.add(body);
+                    continue;
+                }
+                try {
+                    apply(body, live, removed);
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable session journal record: {}", e.getMessage());
+                }
+                records++;
+            }
+            log.info("Replayed {} session journal records in {} ms", records,
+                     Duration.ofNanos(System.nanoTime() - started).toMillis());
+        }
+
+        restore(live);
+        log.info("Restored {} sessions from {}", sessionManager.getSessions().size(), path);
+
+        if (truncated) {
+            // Compacting from memory now would drop the tail; it is compacted once the tail is restored
+            buffer = existing;
+            touched = new HashSet<>();
+            backgroundReplay = Thread.ofVirtual().name("session-journal-replay").start(() -> finishReplay(tail));
+            return;
+        }
+        compact();
+    }
+
+    @Override
+    public void sessionCreated(SessionData session) {
+        appendSession(session, System.currentTimeMillis());
+    }
+
+    @Override
+    public void sessionAuthenticated(SessionData session) {
+        appendSession(session, System.currentTimeMillis());
+    }
+
+    @Override
+    public void sessionRemoved(String sessionId) {
+        append(sessionId, removedRecord(sessionId));
+    }
+
+    /**
+     * Rewrites the journal with one record per live session, carrying their current access times.
+     */
+    @Scheduled(fixedDelayString = "${kite.session-store.compaction-interval:PT10M}",
+               initialDelayString = "${kite.session-store.compaction-interval:PT10M}")
+    public synchronized void compact() {
+        if (truncated) {
+            return;
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            Files.deleteIfExists(compacted);
+            long nowNanos = System.nanoTime();
+            long nowMillis = System.currentTimeMillis();
+            long size = capacity();
+            MappedByteBuffer target = map(compacted, size);
+            int written = 0;
+            for (SessionData session : sessionManager.getSessions()) {
+                long lastAccessedMillis = nowMillis - (nowNanos - session.getLastAccessedNanos()) / 1_000_000;
+                byte[] record = sessionRecord(session, lastAccessedMillis);
+                if (target.remaining() < record.length + 8 + 4) {
+                    size *= 2;
+                    target = remap(compacted, target, size);
+                }
+                write(target, record);
+                written++;
+            }
+            target.force();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            buffer = map(path, size);
+            buffer.position(target.position());
+            log.debug("Compacted session journal to {} sessions", written);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact session journal " + path, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Waits for the background replay of a truncated startup, if any, to finish.
+     */
+    void awaitReplay() throws InterruptedException {
+        Thread replay;
+        synchronized (this) {
+            replay = backgroundReplay;
+        }
+        if (replay != null) {
+            replay.join();
+        }
+    }
+
+    private void finishReplay(List<byte[]> tail) {
+        long started = System.nanoTime();
+        Map<String, PersistedSession> live = new LinkedHashMap<>();
+        Set<String> removed = new HashSet<>();
+        for (byte[] body : tail) {
+            try {
+                apply(body, live, removed);
+            } catch (IOException e) {
+                log.warn("Skipping unreadable session journal record: {}", e.getMessage());
+            }
+        }
+        synchronized (this) {
+            // Sessions created, re-authenticated or removed since startup are newer than their records here
+            live.keySet().removeAll(touched);
+            removed.removeAll(touched);
+            removed.forEach(sessionManager::removeSession);
+            restore(live);
+            truncated = false;
+            touched = null;
+            log.info("Replayed the remaining {} session journal records in {} ms", tail.size(),
+                     Duration.ofNanos(System.nanoTime() - started).toMillis());
+            compact();
+        }
+    }
+
+    private void restore(Map<String, PersistedSession> live) {
+        long now = System.currentTimeMillis();
+        live.values().forEach(session -> sessionManager.restoreSession(session.sessionId(), session.accessToken(),
+            session.userId(), session.authenticated(), Duration.ofMillis(Math.max(0, now - session.lastAccessedMillis()))));
+    }
+
+    private void appendSession(SessionData session, long lastAccessedMillis) {
+        append(session.getSessionId(), sessionRecord(session, lastAccessedMillis));
+    }
+
+    private synchronized void append(String sessionId, byte[] record) {
+        if (touched != null) {
+            touched.add(sessionId);
+        }
+        if (buffer.remaining() < record.length + 8 + 4) {
+            compact();
+            if (buffer.remaining() < record.length + 8 + 4) {
+                try {
+                    buffer = remap(path, buffer, buffer.capacity() * 2L);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to grow session journal " + path, e);
+                }
+            }
+        }
+        write(buffer, record);
+    }
+
+    /**
+     * Applies one record to {@code live}, and to {@code removed}, the sessions whose last record is a removal.
+     */
+    private void apply(byte[] body, Map<String, PersistedSession> live, Set<String> removed) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte type = in.readByte();
+        long timestamp = in.readLong();
+        String sessionId = in.readUTF();
+        if (type == REMOVED_RECORD) {
+            live.remove(sessionId);
+            removed.add(sessionId);
+            return;
+        }
+        removed.remove(sessionId);
+        String userId = in.readUTF();
+        boolean authenticated = in.readBoolean();
+        byte[] encryptedToken = new byte[in.readUnsignedShort()];
+        in.readFully(encryptedToken);
+        live.put(sessionId, new PersistedSession(sessionId, userId, decrypt(encryptedToken), authenticated, timestamp));
+    }
+
+    private byte[] sessionRecord(SessionData session, long lastAccessedMillis) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(SESSION_RECORD);
+            out.writeLong(lastAccessedMillis);
+            out.writeUTF(session.getSessionId());
+            out.writeUTF(session.getUserId());
+            out.writeBoolean(session.isAuthenticated());
+            byte[] encryptedToken = encrypt(session.getAccessToken());
+            out.writeShort(encryptedToken.length);
+            out.write(encryptedToken);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] removedRecord(String sessionId) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(REMOVED_RECORD);
+            out.writeLong(System.currentTimeMillis());
+            out.writeUTF(sessionId);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(MappedByteBuffer target, byte[] body) {
+        target.putInt(body.length).put(body).putInt(crc(body));
+    }
+
+    private byte[] encrypt(String accessToken) {
+        if (accessToken == null) {
+            return new byte[0];
+        }
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] ciphertext = cipher.doFinal(accessToken.getBytes(StandardCharsets.UTF_8));
+            byte[] result = new byte[IV_LENGTH + ciphertext.length];
+            System.arraycopy(iv, 0, result, 0, IV_LENGTH);
+            System.arraycopy(ciphertext, 0, result, IV_LENGTH, ciphertext.length);
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt access token", e);
+        }
+    }
+
+    private String decrypt(byte[] encrypted) throws IOException {
+        if (encrypted.length == 0) {
+            return null;
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, encrypted, 0, IV_LENGTH));
+            return new String(cipher.doFinal(encrypted, IV_LENGTH, encrypted.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            // Most likely the encryption key changed since the record was written
+            throw new IOException("Failed to decrypt persisted access token", e);
+        }
+    }
+
+    private long capacity() {
+        return config.getCapacity().toBytes();
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static MappedByteBuffer remap(Path file, MappedByteBuffer current, long size) throws IOException {
+        int position = current.position();
+        current.force();
+        MappedByteBuffer grown = map(file, size);
+        grown.position(position);
+        return grown;
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static SecretKey encryptionKey(String configuredKey, String apiSecret) {
+        try {
+            byte[] keyBytes = configuredKey != null && !configuredKey.isBlank()
+                ? Base64.getDecoder().decode(configuredKey)
+                : MessageDigest.getInstance("SHA-256").digest(apiSecret.getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(keyBytes, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialise session journal encryption key", e);
+        }
+    }
+}
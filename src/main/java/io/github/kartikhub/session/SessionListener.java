@@ -0,0 +1,35 @@
+package io.github.kartikhub.session;
+
+/**
+ * Callback for components that keep per-session state outside of {@link KiteSessionManager}.
+ * Listeners are invoked synchronously on the thread that changed the session.
+ */
+public interface SessionListener {
+
+    /**
+     * Called after a session has been created or replaced, before it is authenticated.
+     */
+    default void sessionCreated(KiteSessionManager.SessionData session) {
+    }
+
+    /**
+     * Called after a session has been marked authenticated, including re-authentication
+     * of an existing client session with a new access token.
+     */
+    default void sessionAuthenticated(KiteSessionManager.SessionData session) {
+    }
+
+    /**
+     * Called after a session has been removed, either explicitly or, unless {@link #sessionExpired(String)}
+     * is overridden, because it expired.
+     */
+    default void sessionRemoved(String sessionId) {
+    }
+
+    /**
+     * Called after a session has been removed because it was idle past the session timeout on this node.
+     */
+    default void sessionExpired(String sessionId) {
+        sessionRemoved(sessionId);
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.kartikhub.session;
+
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replicates session events to every peer so any node can serve any client session.
+ * <p>
+ * Create, authenticate and remove events are queued per peer and sent in batches from a virtual
+ * thread, one batch in flight per peer, so each peer applies a node's events in the order they
+ * happened. Events received from a peer are applied through {@link KiteSessionManager}, which notifies
+ * the local listeners (journal, client registry, caches) as for a local change, but are not sent on
+ * again. Expiry is not replicated: each node expires its copy once it has been idle there, so a
+ * session kept busy on one node is not removed by a node that never sees it used.
+ * <p>
+ * A node that was down misses events; at startup it takes a snapshot of the live sessions from the
+ * first peer that answers.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kite.cluster", name = "enabled", havingValue = "true")
+public class SessionReplicator implements SessionListener {
+    public static final String EVENTS_PATH = "/internal/cluster/sessions/events";
+    public static final String SNAPSHOT_PATH = "/internal/cluster/sessions";
+    private static final TypeReference<List<SessionEvent>> EVENT_LIST = new TypeReference<>() {
+    };
+    // Set while a peer's events are applied, so they are not replicated back out
+    private static final ThreadLocal<Boolean> APPLYING = ThreadLocal.withInitial(() -> false);
+
+    private final SessionCluster cluster;
+    private final KiteSessionManager sessionManager;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<SessionJournal> journal;
+    private final int maxPending;
+    private final Map<String, Outbox> outboxes = new LinkedHashMap<>();
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kite-replicate-", 0).factory());
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public enum EventType { CREATED, AUTHENTICATED, REMOVED }
+
+    public record SessionEvent(EventType type, String sessionId, String userId, String accessToken,
+                               boolean authenticated, long idleMillis) {
+    }
+
+    // Guarded by its own monitor
+    private static final class Outbox {
+        private final ArrayDeque<SessionEvent> queue = new ArrayDeque<>();
+        private boolean draining;
+    }
+
+    public SessionReplicator(SessionCluster cluster, KiteSessionManager sessionManager, ObjectMapper objectMapper,
+                             ObjectProvider<SessionJournal> journal, KiteProperties kiteProperties) {
+        this.cluster = cluster;
+        this.sessionManager = sessionManager;
+        this.objectMapper = objectMapper;
+        this.journal = journal;
+        this.maxPending = Math.max(1, kiteProperties.getCluster().getMaxPendingEvents());
+        cluster.getPeers().forEach(peer -> outboxes.put(peer, new Outbox()));
+    }
+
+    @PostConstruct
+    public void synchronize() {
+        // Replay the local journal first, so the copies held by running peers win
+        journal.getIfAvailable();
+        for (String peer : cluster.getPeers()) {
+            try {
+                HttpResponse<byte[]> response = cluster.send(peer, "GET", SNAPSHOT_PATH, new byte[0]).join();
+                if (response.statusCode() != 200) {
+                    log.warn("Peer {} answered the session snapshot request with status {}", peer, response.statusCode());
+                    continue;
+                }
+                List<SessionEvent> sessions = objectMapper.readValue(response.body(), EVENT_LIST);
+                sessions.forEach(session -> sessionManager.restoreSession(session.sessionId(), session.accessToken(),
+                    session.userId(), session.authenticated(), Duration.ofMillis(session.idleMillis())));
+                log.info("Synchronized {} sessions from peer {}", sessions.size(), peer);
+                return;
+            } catch (RuntimeException | IOException e) {
+                log.info("Could not synchronize sessions from peer {}: {}", peer, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void sessionCreated(SessionData session) {
+        publish(event(EventType.CREATED, session, 0));
+    }
+
+    @Override
+    public void sessionAuthenticated(SessionData session) {
+        publish(event(EventType.AUTHENTICATED, session, 0));
+    }
+
+    @Override
+    public void sessionRemoved(String sessionId) {
+        publish(new SessionEvent(EventType.REMOVED, sessionId, null, null, false, 0));
+    }
+
+    @Override
+    public void sessionExpired(String sessionId) {
+        // Expiry is local to each node
+    }
+
+    /**
+     * Applies events received from a peer, in order.
+     */
+    public void apply(List<SessionEvent> events) {
+        APPLYING.set(true);
+        try {
+            for (SessionEvent event : events) {
+                try {
+                    switch (event.type()) {
+                        case CREATED -> sessionManager.createSession(event.sessionId(), event.accessToken(), event.userId());
+                        case AUTHENTICATED -> {
+                            sessionManager.createSession(event.sessionId(), event.accessToken(), event.userId());
+                            sessionManager.setAuthenticated(event.sessionId(), true);
+                        }
+                        case REMOVED -> sessionManager.removeSession(event.sessionId());
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Skipping replicated {} event for session {}: {}", event.type(), event.sessionId(), e.getMessage());
+                }
+            }
+        } finally {
+            APPLYING.remove();
+        }
+    }
+
+    /**
+     * The live sessions on this node, as sent to a peer that is starting up.
+     */
+    public List<SessionEvent> snapshot() {
+        long now = System.nanoTime();
+        List<SessionEvent> events = new ArrayList<>(sessionManager.getSessionCount());
+        for (SessionData session : sessionManager.getSessions()) {
+            if (!session.isExpired(now)) {
+                long idleMillis = Math.max(0, (now - session.getLastAccessedNanos()) / 1_000_000);
+                events.add(event(session.isAuthenticated() ? EventType.AUTHENTICATED : EventType.CREATED, session, idleMillis));
+            }
+        }
+        return events;
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private static SessionEvent event(EventType type, SessionData session, long idleMillis) {
+        return new SessionEvent(type, session.getSessionId(), session.getUserId(), session.getAccessToken(),
+                                session.isAuthenticated(), idleMillis);
+    }
+
+    private void publish(SessionEvent event) {
+        if (APPLYING.get()) {
+            return;
+        }
+        outboxes.forEach((peer, outbox) -> {
+            synchronized (outbox) {
+                if (outbox.queue.size() >= maxPending) {
+                    dropped.increment();
+                    return;
+                }
+                outbox.queue.add(event);
+                if (outbox.draining) {
+                    return;
+                }
+                outbox.draining = true;
+            }
+            try {
+                executor.execute(() -> drain(peer, outbox));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                synchronized (outbox) {
+                    outbox.draining = false;
+                }
+            }
+        });
+    }
+
+    private void drain(String peer, Outbox outbox) {
+        while (true) {
+            List<SessionEvent> batch;
+            synchronized (outbox) {
+                if (outbox.queue.isEmpty()) {
+                    outbox.draining = false;
+                    return;
+                }
+                batch = new ArrayList<>(outbox.queue);
+                outbox.queue.clear();
+            }
+            try {
+                HttpResponse<byte[]> response =
+                    cluster.send(peer, "POST", EVENTS_PATH, objectMapper.writeValueAsBytes(batch)).join();
+                if (response.statusCode() / 100 != 2) {
+                    failed.add(batch.size());
+                    log.warn("Peer {} rejected {} session events with status {}", peer, batch.size(), response.statusCode());
+                }
+            } catch (RuntimeException | IOException e) {
+                failed.add(batch.size());
+                log.warn("Could not replicate {} session events to peer {}: {}", batch.size(), peer, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.service.Candle;
+
+import java.util.List;
+
+/**
+ * Candles returned by the {@code get_historical_data} tool.
+ *
+ * @param candles   candles in the requested range, oldest first
+ * @param truncated whether older candles were dropped to stay within {@code kite.historical.max-candles}
+ */
+public record HistoricalDataResult(String instrument, long instrumentToken, String interval, List<Candle> candles,
+                                   boolean truncated) {
+}
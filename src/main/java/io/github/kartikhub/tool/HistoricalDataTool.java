@@ -0,0 +1,140 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.exception.RateLimitExceededException;
+import io.github.kartikhub.exception.SessionNotFoundException;
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.service.Candle;
+import io.github.kartikhub.service.CandleStore;
+import io.github.kartikhub.service.InstrumentInfo;
+import io.github.kartikhub.service.InstrumentStore;
+import io.github.kartikhub.service.KiteService;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HistoricalDataTool {
+    private final KiteService kiteService;
+    private final InstrumentStore instrumentStore;
+    private final CandleStore candleStore;
+    private final KiteProperties kiteProperties;
+    private final ToolNotifier notifier;
+
+    @Tool(
+        name = "get_historical_data",
+        description = "Get historical OHLC candles from Zerodha Kite for one instrument. The instrument is given as " +
+                     "EXCHANGE:TRADINGSYMBOL (e.g. NSE:INFY) or an instrument token. Supported intervals: minute, " +
+                     "3minute, 5minute, 10minute, 15minute, 30minute, 60minute, day. Past days are cached on disk, " +
+                     "so repeated or overlapping requests are fast. If the range holds too many candles, the most " +
+                     "recent ones are returned and 'truncated' is set. Requires the session ID returned from the login tool."
+    )
+    public HistoricalDataResult getHistoricalData(
+        String sessionId,
+        @ToolParam(description = "EXCHANGE:TRADINGSYMBOL or instrument token, e.g. NSE:INFY or 256265")
+        String instrument,
+        @ToolParam(description = "Candle interval, e.g. day or 5minute")
+        String interval,
+        @ToolParam(description = "Start of the range as yyyy-MM-dd or yyyy-MM-dd HH:mm:ss (exchange time)")
+        String from,
+        @ToolParam(required = false, description = "End of the range as yyyy-MM-dd or yyyy-MM-dd HH:mm:ss (default now)")
+        String to,
+        @ToolParam(required = false, description = "Continuous data for futures contracts (default false)")
+        Boolean continuous,
+        ToolContext context) {
+        McpSyncServerExchange mcpExchange = McpToolUtils.getMcpExchange(context).get();
+        log.debug("MCP Tool: Fetching {} candles for {} from {} to {} in client session: {}",
+                  interval, instrument, from, to, sessionId);
+        notifier.info(mcpExchange, "Fetching %s candles for %s for session: %s", interval, instrument, sessionId);
+
+        try {
+            if (interval == null || !CandleStore.intervals().contains(interval)) {
+                throw new IllegalArgumentException("Unsupported interval '" + interval + "'. Supported: " + CandleStore.intervals());
+            }
+            long token = resolve(instrument);
+            ZonedDateTime rangeFrom = parse(from, "from", false);
+            ZonedDateTime rangeTo = to == null || to.isBlank() ? ZonedDateTime.now(candleStore.getZone()) : parse(to, "to", true);
+
+            List<Candle> candles = kiteService.getHistoricalData(sessionId, token, interval, rangeFrom, rangeTo,
+                Boolean.TRUE.equals(continuous));
+            int maxCandles = kiteProperties.getHistorical().getMaxCandles();
+            boolean truncated = candles.size() > maxCandles;
+            if (truncated) {
+                candles = candles.subList(candles.size() - maxCandles, candles.size());
+            }
+            notifier.info(mcpExchange, "Retrieved %d candles for %s for session: %s", candles.size(), instrument, sessionId);
+            return new HistoricalDataResult(instrument.trim(), token, interval, candles, truncated);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid get_historical_data arguments for session {}: {}", sessionId, e.getMessage());
+            notifier.error(mcpExchange, e.getMessage());
+            throw e;
+        } catch (SessionNotFoundException e) {
+            String error = String.format("Session not found for %s. Please log in using the login tool first.", sessionId);
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new IllegalStateException(error, e);
+        } catch (RateLimitExceededException e) {
+            log.warn("Rate limited while fetching historical data for session {}: {}", sessionId, e.getMessage());
+            notifier.warning(mcpExchange, e.getMessage());
+            throw e;
+        } catch (IllegalStateException e) {
+            log.warn("Historical data request failed for session {}: {}", sessionId, e.getMessage());
+            notifier.error(mcpExchange, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            String error = String.format("Unexpected error while fetching historical data for session %s: %s", sessionId, e.getMessage());
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    private long resolve(String instrument) {
+        String trimmed = instrument == null ? "" : instrument.trim();
+        if (!trimmed.isEmpty() && trimmed.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(trimmed);
+        }
+        int separator = trimmed.indexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Instrument '" + instrument + "' must be EXCHANGE:TRADINGSYMBOL or an instrument token");
+        }
+        List<InstrumentInfo> matches = instrumentStore.findBySymbol(trimmed.substring(separator + 1),
+            trimmed.substring(0, separator));
+        if (matches.isEmpty()) {
+            throw new IllegalArgumentException("Unknown instrument '" + instrument + "'. Use search_instruments to find it.");
+        }
+        return matches.get(0).instrumentToken();
+    }
+
+    /**
+     * Parses a date or date-time in the exchange's time zone; a bare date ends the day when used as 'to'.
+     */
+    private ZonedDateTime parse(String value, String name, boolean endOfDay) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("'" + name + "' is required, e.g. 2024-01-31");
+        }
+        String trimmed = value.trim();
+        try {
+            if (trimmed.length() == 10) {
+                LocalDate date = LocalDate.parse(trimmed);
+                return endOfDay
+                    ? date.plusDays(1).atStartOfDay(candleStore.getZone()).minusSeconds(1)
+                    : date.atStartOfDay(candleStore.getZone());
+            }
+            return LocalDateTime.parse(trimmed.replace(' ', 'T')).atZone(candleStore.getZone());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("'" + name + "' must be yyyy-MM-dd or yyyy-MM-dd HH:mm:ss, got '" + value + "'");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.kartikhub.tool;
+
+import com.zerodhatech.models.Holding;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A holding projected onto the requested fields. {@link ToolResultSerializer} writes it straight from the
+ * cached {@link Holding}, so no per-row map is built.
+ *
+ * @param fields    field names in output order, shared by every row of a page
+ * @param accessors accessor for each entry of {@code fields}
+ */
+public record HoldingRow(Holding holding, List<String> fields, List<Function<Holding, Object>> accessors) {
+}
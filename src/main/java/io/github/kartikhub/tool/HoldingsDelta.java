@@ -0,0 +1,18 @@
+package io.github.kartikhub.tool;
+
+import java.util.List;
+
+/**
+ * Holdings changes returned by the {@code get_holdings_changes} tool.
+ *
+ * @param version pass back as {@code sinceVersion} on the next call
+ * @param full    true when this is a full resync and the client should replace its copy; all rows are in {@code added}
+ * @param added   rows that are new since {@code sinceVersion}
+ * @param changed rows whose requested fields changed since {@code sinceVersion}
+ * @param removed instrument tokens of rows that are gone; every added and changed row carries its
+ *                {@code instrument_token}, whichever fields were requested, to match them against
+ * @param total   number of holdings matching the filters
+ */
+public record HoldingsDelta(String version, boolean full, List<HoldingRow> added, List<HoldingRow> changed,
+                            List<String> removed, int total) {
+}
@@ -0,0 +1,13 @@
+package io.github.kartikhub.tool;
+
+import java.util.List;
+
+/**
+ * One page of projected holdings returned by the {@code get_holdings} tool.
+ *
+ * @param holdings   the requested fields of each holding on this page
+ * @param total      number of holdings matching the filters across all pages
+ * @param nextCursor cursor for the following page, or {@code null} on the last page
+ */
+public record HoldingsPage(List<HoldingRow> holdings, int total, String nextCursor) {
+}
@@ -1,21 +1,29 @@
 package io.github.kartikhub.tool;
 
+import io.github.kartikhub.service.HoldingFields;
+import io.github.kartikhub.service.HoldingsDeltaTracker;
 import io.github.kartikhub.service.KiteService;
+import io.github.kartikhub.exception.RateLimitExceededException;
 import io.github.kartikhub.exception.SessionNotFoundException;
 import io.github.kartikhub.session.KiteSessionManager;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Holding;
 import io.modelcontextprotocol.server.McpSyncServerExchange;
-import io.modelcontextprotocol.spec.McpSchema.LoggingMessageNotification;
-import io.modelcontextprotocol.spec.McpSchema.LoggingLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.mcp.McpToolUtils;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 
 @Slf4j
 @Component
@@ -23,47 +31,275 @@ import java.util.ArrayList;
 public class HoldingsTool {
     private final KiteService kiteService;
     private final KiteSessionManager sessionManager;
+    private final ToolNotifier notifier;
+    private final HoldingsDeltaTracker deltaTracker;
+
+    private static final int MAX_PAGE_SIZE = 500;
 
     @Tool(
         name = "get_holdings",
         description = "Get the current user's portfolio holdings from Zerodha Kite. " +
                      "Returns a list of holdings with details like trading symbol, quantity, average price, " +
                      "last price, and P&L. Must be logged in first using the login tool. " +
-                     "Requires the session ID returned from the login tool."
+                     "Requires the session ID returned from the login tool. " +
+                     "With any of fields, sortBy, exchange, symbolPrefix or limit, returns {holdings, total, nextCursor} " +
+                     "instead: only the requested columns of the matching holdings, all of them unless limit is set. " +
+                     "Pass nextCursor back as cursor, with the same sortBy and filters, to fetch the next page."
     )
-    public ArrayList<Holding> getHoldings(String sessionId, ToolContext context) {
-        McpSyncServerExchange exchange = McpToolUtils.getMcpExchange(context).get();
+    public Object getHoldings(
+        String sessionId,
+        @ToolParam(required = false, description = "Fields to return, e.g. [\"tradingsymbol\", \"quantity\", \"pnl\"]. " +
+            "Supported: tradingsymbol, exchange, instrument_token, isin, product, quantity, t1_quantity, " +
+            "average_price, last_price, pnl, day_change, day_change_percentage. Defaults to all.")
+        List<String> fields,
+        @ToolParam(required = false, description = "Field to sort by; prefix with '-' for descending, e.g. -pnl")
+        String sortBy,
+        @ToolParam(required = false, description = "Only return holdings on this exchange, e.g. NSE")
+        String exchange,
+        @ToolParam(required = false, description = "Only return holdings whose trading symbol starts with this prefix")
+        String symbolPrefix,
+        @ToolParam(required = false, description = "Maximum holdings per page (max 500); all matching holdings when omitted")
+        Integer limit,
+        @ToolParam(required = false, description = "nextCursor from a previous page")
+        String cursor,
+        ToolContext context) {
+        McpSyncServerExchange mcpExchange = McpToolUtils.getMcpExchange(context).get();
         String clientSessionId = sessionId;
         
         log.debug("MCP Tool: Fetching holdings for client session: {}", clientSessionId);
-        exchange.loggingNotification(new LoggingMessageNotification(LoggingLevel.INFO, "server", 
-            String.format("Fetching portfolio holdings for session: %s", clientSessionId)));
+        notifier.info(mcpExchange, "Fetching portfolio holdings for session: %s", clientSessionId);
 
         try {
             ArrayList<Holding> holdings = kiteService.getHoldings(clientSessionId);
-            String message = String.format("Successfully retrieved %d holdings for session: %s", holdings.size(), clientSessionId);
-            exchange.loggingNotification(new LoggingMessageNotification(LoggingLevel.INFO, "server", message));
-            return holdings;
+            if (fields == null && sortBy == null && exchange == null && symbolPrefix == null && limit == null
+                && cursor == null) {
+                // No paging or projection asked for: the complete list, as before these options existed
+                notifier.info(mcpExchange, "Successfully retrieved %d holdings for session: %s", holdings.size(),
+                    clientSessionId);
+                return holdings;
+            }
+            HoldingsPage page = page(holdings, fields, sortBy, exchange, symbolPrefix, limit, cursor);
+            notifier.info(mcpExchange, "Successfully retrieved %d of %d holdings for session: %s",
+                page.holdings().size(), page.total(), clientSessionId);
+            return page;
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid get_holdings arguments for session {}: {}", clientSessionId, e.getMessage());
+            notifier.error(mcpExchange, e.getMessage());
+            throw e;
         } catch (SessionNotFoundException e) {
             String error = String.format("Session not found for %s. Please log in using the login tool first.", clientSessionId);
             log.error(error, e);
-            exchange.loggingNotification(new LoggingMessageNotification(LoggingLevel.ERROR, "server", error));
+            notifier.error(mcpExchange, error);
             throw new IllegalStateException(error, e);
         } catch (KiteException e) {
             String error = String.format("Kite API error (code: %d): %s", e.code, e.getMessage());
             log.error("Error for session {}: {}", clientSessionId, error, e);
-            exchange.loggingNotification(new LoggingMessageNotification(LoggingLevel.ERROR, "server", error));
+            notifier.error(mcpExchange, error);
             throw new RuntimeException(error, e);
+        } catch (RateLimitExceededException e) {
+            log.warn("Rate limited while fetching holdings for session {}: {}", clientSessionId, e.getMessage());
+            notifier.warning(mcpExchange, e.getMessage());
+            throw e;
         } catch (IOException e) {
             String error = String.format("Network error while fetching holdings for session %s: %s", clientSessionId, e.getMessage());
             log.error(error, e);
-            exchange.loggingNotification(new LoggingMessageNotification(LoggingLevel.ERROR, "server", error));
+            notifier.error(mcpExchange, error);
             throw new RuntimeException(error, e);
         } catch (Exception e) {
             String error = String.format("Unexpected error while fetching holdings for session %s: %s", clientSessionId, e.getMessage());
             log.error(error, e);
-            exchange.loggingNotification(new LoggingMessageNotification(LoggingLevel.ERROR, "server", error));
+            notifier.error(mcpExchange, error);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    @Tool(
+        name = "get_holdings_changes",
+        description = "Get only the holdings that changed since a previous call, for monitoring a portfolio " +
+                     "without re-reading every holding. Returns added and changed rows, the instrument tokens of " +
+                     "removed rows, and a version to pass back as sinceVersion next time. Every row includes " +
+                     "instrument_token, so rows can be matched to what you have. Omit sinceVersion on the " +
+                     "first call. When full is true, every holding is in added and replaces what you had. " +
+                     "Only changes to the requested fields are reported; keep fields and filters the same between calls. " +
+                     "Requires the session ID returned from the login tool."
+    )
+    public HoldingsDelta getHoldingsChanges(
+        String sessionId,
+        @ToolParam(required = false, description = "Fields to return and compare, e.g. [\"tradingsymbol\", \"last_price\", \"pnl\"]. " +
+            "Same names as get_holdings. Defaults to all.")
+        List<String> fields,
+        @ToolParam(required = false, description = "Only track holdings on this exchange, e.g. NSE")
+        String exchange,
+        @ToolParam(required = false, description = "Only track holdings whose trading symbol starts with this prefix")
+        String symbolPrefix,
+        @ToolParam(required = false, description = "version from the previous get_holdings_changes call")
+        String sinceVersion,
+        ToolContext context) {
+        McpSyncServerExchange mcpExchange = McpToolUtils.getMcpExchange(context).get();
+        String clientSessionId = sessionId;
+
+        log.debug("MCP Tool: Fetching holdings changes since {} for client session: {}", sinceVersion, clientSessionId);
+        notifier.info(mcpExchange, "Checking portfolio holdings for changes for session: %s", clientSessionId);
+
+        try {
+            ArrayList<Holding> holdings = kiteService.getHoldings(clientSessionId);
+            HoldingsDelta delta = delta(clientSessionId, holdings, fields, exchange, symbolPrefix, sinceVersion);
+            notifier.info(mcpExchange, "Holdings for session %s: %d added, %d changed, %d removed%s",
+                clientSessionId, delta.added().size(), delta.changed().size(), delta.removed().size(),
+                delta.full() ? " (full resync)" : "");
+            return delta;
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid get_holdings_changes arguments for session {}: {}", clientSessionId, e.getMessage());
+            notifier.error(mcpExchange, e.getMessage());
+            throw e;
+        } catch (SessionNotFoundException e) {
+            String error = String.format("Session not found for %s. Please log in using the login tool first.", clientSessionId);
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new IllegalStateException(error, e);
+        } catch (KiteException e) {
+            String error = String.format("Kite API error (code: %d): %s", e.code, e.getMessage());
+            log.error("Error for session {}: {}", clientSessionId, error, e);
+            notifier.error(mcpExchange, error);
             throw new RuntimeException(error, e);
+        } catch (RateLimitExceededException e) {
+            log.warn("Rate limited while fetching holdings changes for session {}: {}", clientSessionId, e.getMessage());
+            notifier.warning(mcpExchange, e.getMessage());
+            throw e;
+        } catch (IOException e) {
+            String error = String.format("Network error while fetching holdings for session %s: %s", clientSessionId, e.getMessage());
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new RuntimeException(error, e);
+        } catch (Exception e) {
+            String error = String.format("Unexpected error while fetching holdings changes for session %s: %s", clientSessionId, e.getMessage());
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    /**
+     * Filters, sorts and projects only the rows of the requested page; the cached list is never modified.
+     * Without a limit the page holds every matching row.
+     */
+    private static HoldingsPage page(List<Holding> holdings, List<String> fields, String sortBy, String exchange,
+                                     String symbolPrefix, Integer limit, String cursor) {
+        List<String> projection = projection(fields);
+        List<Function<Holding, Object>> accessors = projection.stream().map(HoldingFields::accessor).toList();
+        int pageSize = limit == null ? Integer.MAX_VALUE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<Holding> matching = filter(holdings, exchange, symbolPrefix);
+        if (sortBy != null && !sortBy.isBlank()) {
+            boolean descending = sortBy.startsWith("-");
+            Comparator<Holding> comparator = HoldingFields.comparator(descending ? sortBy.substring(1) : sortBy);
+            matching.sort(descending ? comparator.reversed() : comparator);
+        }
+
+        String view = sortBy + '|' + exchange + '|' + symbolPrefix;
+        long order = orderHash(matching);
+        int offset = decodeCursor(cursor, view, order);
+        int end = (int) Math.min(matching.size(), (long) offset + pageSize);
+        List<HoldingRow> rows = new ArrayList<>(Math.max(0, end - offset));
+        for (int i = offset; i < end; i++) {
+            rows.add(new HoldingRow(matching.get(i), projection, accessors));
+        }
+        String nextCursor = end < matching.size() ? encodeCursor(end, view, order) : null;
+        return new HoldingsPage(rows, matching.size(), nextCursor);
+    }
+
+    /**
+     * Diffs the filtered holdings against what the session was sent last, projecting only the changed rows.
+     * Only the requested fields are compared, but the rows always include {@code instrument_token}.
+     */
+    private HoldingsDelta delta(String sessionId, List<Holding> holdings, List<String> fields, String exchange,
+                                String symbolPrefix, String sinceVersion) {
+        List<String> projection = projection(fields);
+        List<Function<Holding, Object>> accessors = projection.stream().map(HoldingFields::accessor).toList();
+        List<Holding> matching = filter(holdings, exchange, symbolPrefix);
+        // A different projection or filter compares different rows and fields, so it starts a new snapshot
+        String view = String.join(",", projection) + '|' + exchange + '|' + symbolPrefix;
+
+        HoldingsDeltaTracker.Delta delta = deltaTracker.diff(sessionId, view, matching, accessors,
+            sinceVersion == null || sinceVersion.isBlank() ? null : sinceVersion);
+        // Removed rows are reported by instrument token, so every row carries it even if not requested
+        List<String> rowFields = projection;
+        if (!projection.contains("instrument_token")) {
+            rowFields = new ArrayList<>(projection.size() + 1);
+            rowFields.add("instrument_token");
+            rowFields.addAll(projection);
+        }
+        List<Function<Holding, Object>> rowAccessors = rowFields.stream().map(HoldingFields::accessor).toList();
+        return new HoldingsDelta(delta.version(), delta.full(), rows(delta.added(), rowFields, rowAccessors),
+            rows(delta.changed(), rowFields, rowAccessors), delta.removed(), matching.size());
+    }
+
+    private static List<String> projection(List<String> fields) {
+        return fields == null || fields.isEmpty() ? List.copyOf(HoldingFields.names()) : fields;
+    }
+
+    private static List<Holding> filter(List<Holding> holdings, String exchange, String symbolPrefix) {
+        List<Holding> matching = new ArrayList<>(holdings.size());
+        for (Holding holding : holdings) {
+            if ((exchange == null || exchange.equalsIgnoreCase(holding.exchange))
+                && (symbolPrefix == null || (holding.tradingSymbol != null
+                    && holding.tradingSymbol.regionMatches(true, 0, symbolPrefix, 0, symbolPrefix.length())))) {
+                matching.add(holding);
+            }
+        }
+        return matching;
+    }
+
+    private static List<HoldingRow> rows(List<Holding> holdings, List<String> projection,
+                                         List<Function<Holding, Object>> accessors) {
+        List<HoldingRow> rows = new ArrayList<>(holdings.size());
+        for (Holding holding : holdings) {
+            rows.add(new HoldingRow(holding, projection, accessors));
+        }
+        return rows;
+    }
+
+    /**
+     * Identifies which holdings are in which position, so a cursor issued before the cached holdings were
+     * refreshed, and would skip or repeat rows, can be told apart from a current one.
+     */
+    private static long orderHash(List<Holding> matching) {
+        long hash = matching.size();
+        for (Holding holding : matching) {
+            Object token = holding.instrumentToken;
+            hash = 31 * hash + Objects.hashCode(token != null ? token : holding.tradingSymbol);
+        }
+        return hash;
+    }
+
+    // A cursor is offset:view-hash:order-hash; the view is the sort and filters the page was produced with
+    private static String encodeCursor(int offset, String view, long order) {
+        String cursor = "offset:" + offset + ':' + Integer.toHexString(view.hashCode()) + ':' + Long.toHexString(order);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor, String view, long order) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        String[] parts = {};
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            // Not base64; rejected below
+        }
+        int offset = parts.length == 4 && parts[0].equals("offset") && parts[1].matches("\\d{1,9}")
+            ? Integer.parseInt(parts[1]) : -1;
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (!parts[2].equals(Integer.toHexString(view.hashCode()))) {
+            throw new IllegalArgumentException("Cursor was issued for a different sortBy, exchange or symbolPrefix; " +
+                "pass the same ones, or start again without a cursor");
+        }
+        if (!parts[3].equals(Long.toHexString(order))) {
+            throw new IllegalArgumentException("Holdings changed since this cursor was issued; start again without a cursor");
         }
+        return offset;
     }
 }
@@ -0,0 +1,14 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.service.LiveTick;
+
+import java.util.List;
+
+/**
+ * Latest streamed ticks for one instrument, returned by the {@code get_live_ticks} tool.
+ *
+ * @param instrument the instrument as requested
+ * @param ticks      most recent ticks, oldest first; empty until the first tick arrives
+ */
+public record InstrumentTicks(String instrument, long instrumentToken, List<LiveTick> ticks) {
+}
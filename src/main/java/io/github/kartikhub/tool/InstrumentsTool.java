@@ -0,0 +1,85 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.service.InstrumentInfo;
+import io.github.kartikhub.service.InstrumentStore;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InstrumentsTool {
+    private final InstrumentStore instrumentStore;
+    private final ToolNotifier notifier;
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    @Tool(
+        name = "search_instruments",
+        description = "Look up tradable instruments in Zerodha Kite's instrument list. The query can be an exact " +
+                     "EXCHANGE:TRADINGSYMBOL (e.g. NSE:INFY), a numeric instrument token, or a trading symbol or " +
+                     "symbol prefix (e.g. NIFTY25OCT). Exact symbol matches are listed first, followed by prefix " +
+                     "matches. Returns instrument tokens, exchange, segment, instrument type, expiry, strike and lot size."
+    )
+    public List<InstrumentInfo> searchInstruments(
+        @ToolParam(description = "EXCHANGE:TRADINGSYMBOL, instrument token, or trading symbol prefix")
+        String query,
+        @ToolParam(required = false, description = "Only return instruments on this exchange, e.g. NSE, BSE, NFO")
+        String exchange,
+        @ToolParam(required = false, description = "Maximum results (default 20, max 100)")
+        Integer limit,
+        ToolContext context) {
+        McpSyncServerExchange mcpExchange = McpToolUtils.getMcpExchange(context).get();
+        log.debug("MCP Tool: Searching instruments for '{}' on exchange {}", query, exchange);
+
+        try {
+            if (query == null || query.isBlank()) {
+                throw new IllegalArgumentException("A query is required, e.g. NSE:INFY or INFY");
+            }
+            String trimmed = query.trim();
+            int max = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+            if (trimmed.chars().allMatch(Character::isDigit)) {
+                return instrumentStore.findByToken(Long.parseLong(trimmed)).map(List::of).orElse(List.of());
+            }
+            int separator = trimmed.indexOf(':');
+            if (separator > 0) {
+                return instrumentStore.findBySymbol(trimmed.substring(separator + 1), trimmed.substring(0, separator));
+            }
+
+            // Exact matches first, then prefix matches, without duplicates
+            Map<Long, InstrumentInfo> results = new LinkedHashMap<>();
+            for (InstrumentInfo instrument : instrumentStore.findBySymbol(trimmed, exchange)) {
+                results.putIfAbsent(instrument.instrumentToken(), instrument);
+            }
+            for (InstrumentInfo instrument : instrumentStore.searchByPrefix(trimmed, exchange, max)) {
+                if (results.size() >= max) {
+                    break;
+                }
+                results.putIfAbsent(instrument.instrumentToken(), instrument);
+            }
+            List<InstrumentInfo> matches = new ArrayList<>(results.values());
+            return matches.size() > max ? matches.subList(0, max) : matches;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("Instrument search for '{}' failed: {}", query, e.getMessage());
+            notifier.error(mcpExchange, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            String error = String.format("Unexpected error while searching instruments for '%s': %s", query, e.getMessage());
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new RuntimeException(error, e);
+        }
+    }
+}
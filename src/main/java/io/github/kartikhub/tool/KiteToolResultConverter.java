@@ -0,0 +1,32 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.diagnostics.Phase;
+import io.github.kartikhub.diagnostics.PhaseTimer;
+import io.github.kartikhub.diagnostics.PhaseTimers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Type;
+
+/**
+ * Result converter that {@code ToolConfig} sets on every Kite tool callback, so results are written by
+ * the configured {@link ToolResultSerializer}.
+ */
+@Component
+@RequiredArgsConstructor
+public class KiteToolResultConverter implements ToolCallResultConverter {
+    private final ToolResultSerializer serializer;
+    private final PhaseTimers phaseTimers;
+
+    @Override
+    public String convert(Object result, Type returnType) {
+        PhaseTimer timer = phaseTimers.start(Phase.SERIALIZATION);
+        try {
+            return serializer.serialize(result, returnType);
+        } finally {
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.exception.SessionNotFoundException;
+import io.github.kartikhub.service.InstrumentInfo;
+import io.github.kartikhub.service.InstrumentStore;
+import io.github.kartikhub.service.KiteTickerHub;
+import io.github.kartikhub.service.LiveTick;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiveTicksTool {
+    private final KiteTickerHub tickerHub;
+    private final InstrumentStore instrumentStore;
+    private final ToolNotifier notifier;
+
+    private static final int DEFAULT_TICKS = 1;
+    private static final long MAX_WAIT_MILLIS = 5000;
+
+    @Tool(
+        name = "get_live_ticks",
+        description = "Get streaming prices from Zerodha Kite's live ticker instead of polling quotes. The first call " +
+                     "for an instrument subscribes the session to it; later calls return the most recent ticks from " +
+                     "memory. Instruments are EXCHANGE:TRADINGSYMBOL (e.g. NSE:INFY) or instrument tokens. " +
+                     "Subscriptions last until stop_live_ticks is called or the session ends. " +
+                     "Requires the session ID returned from the login tool."
+    )
+    public List<InstrumentTicks> getLiveTicks(
+        String sessionId,
+        @ToolParam(description = "Instruments as EXCHANGE:TRADINGSYMBOL or instrument token, e.g. [\"NSE:INFY\", \"256265\"]")
+        List<String> instruments,
+        @ToolParam(required = false, description = "Ticks to return per instrument, newest last (default 1)")
+        Integer count,
+        @ToolParam(required = false, description = "Milliseconds to wait for the first tick of new subscriptions (default 0, max 5000)")
+        Long waitMillis,
+        ToolContext context) {
+        McpSyncServerExchange mcpExchange = McpToolUtils.getMcpExchange(context).get();
+        log.debug("MCP Tool: Reading live ticks for {} instruments in client session: {}",
+                  instruments == null ? 0 : instruments.size(), sessionId);
+
+        try {
+            Map<String, Long> tokens = resolve(instruments);
+            tickerHub.subscribe(sessionId, tokens.values());
+            if (waitMillis != null && waitMillis > 0) {
+                tickerHub.awaitFirstTicks(sessionId, tokens.values(),
+                    Duration.ofMillis(Math.min(waitMillis, MAX_WAIT_MILLIS)));
+            }
+            Map<Long, List<LiveTick>> ticks = tickerHub.latestTicks(sessionId, tokens.values(),
+                count == null ? DEFAULT_TICKS : Math.max(1, count));
+            List<InstrumentTicks> result = new ArrayList<>(tokens.size());
+            tokens.forEach((instrument, token) -> result.add(new InstrumentTicks(instrument, token, ticks.get(token))));
+            return result;
+        } catch (SessionNotFoundException e) {
+            String error = String.format("Session not found for %s. Please log in using the login tool first.", sessionId);
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new IllegalStateException(error, e);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("Live ticks request failed for session {}: {}", sessionId, e.getMessage());
+            notifier.error(mcpExchange, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            String error = String.format("Unexpected error while reading live ticks for session %s: %s", sessionId, e.getMessage());
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    @Tool(
+        name = "stop_live_ticks",
+        description = "Stop streaming ticks for the given instruments, or for all of the session's instruments " +
+                     "when none are given. Requires the session ID returned from the login tool."
+    )
+    public String stopLiveTicks(
+        String sessionId,
+        @ToolParam(required = false, description = "Instruments to stop, as EXCHANGE:TRADINGSYMBOL or instrument token")
+        List<String> instruments,
+        ToolContext context) {
+        McpSyncServerExchange mcpExchange = McpToolUtils.getMcpExchange(context).get();
+        try {
+            if (instruments == null || instruments.isEmpty()) {
+                tickerHub.unsubscribe(sessionId, null);
+                return "Stopped all live ticks for this session";
+            }
+            Map<String, Long> tokens = resolve(instruments);
+            tickerHub.unsubscribe(sessionId, tokens.values());
+            return String.format("Stopped live ticks for %d instruments", tokens.size());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("Stopping live ticks failed for session {}: {}", sessionId, e.getMessage());
+            notifier.error(mcpExchange, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Maps each requested instrument to its instrument token, in request order.
+     */
+    private Map<String, Long> resolve(List<String> instruments) {
+        if (instruments == null || instruments.isEmpty()) {
+            throw new IllegalArgumentException("At least one instrument is required, e.g. NSE:INFY");
+        }
+        Map<String, Long> tokens = new LinkedHashMap<>();
+        for (String instrument : instruments) {
+            String trimmed = instrument.trim();
+            if (!trimmed.isEmpty() && trimmed.chars().allMatch(Character::isDigit)) {
+                tokens.put(trimmed, Long.parseLong(trimmed));
+                continue;
+            }
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Instrument '" + instrument + "' must be EXCHANGE:TRADINGSYMBOL or an instrument token");
+            }
+            List<InstrumentInfo> matches = instrumentStore.findBySymbol(trimmed.substring(separator + 1),
+                trimmed.substring(0, separator));
+            if (matches.isEmpty()) {
+                throw new IllegalArgumentException("Unknown instrument '" + instrument + "'. Use search_instruments to find it.");
+            }
+            tokens.put(trimmed, matches.get(0).instrumentToken());
+        }
+        return tokens;
+    }
+}
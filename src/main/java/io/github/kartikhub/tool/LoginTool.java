@@ -5,8 +5,6 @@ import io.github.kartikhub.session.KiteSessionManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import io.modelcontextprotocol.server.McpSyncServerExchange;
-import io.modelcontextprotocol.spec.McpSchema.LoggingMessageNotification;
-import io.modelcontextprotocol.spec.McpSchema.LoggingLevel;
 import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.mcp.McpToolUtils;
 import org.springframework.ai.tool.annotation.Tool;
@@ -20,6 +18,7 @@ import java.util.UUID;
 public class LoginTool {
     private final KiteService kiteService;
     private final KiteSessionManager sessionManager;
+    private final ToolNotifier notifier;
 
     @Tool(
         name = "login",
@@ -37,8 +36,7 @@ public class LoginTool {
         // Store the session mapping (the request token will be stored in callback)
         sessionManager.storeTokenMapping(clientSessionId, clientSessionId);
 
-        exchange.loggingNotification(new LoggingMessageNotification(LoggingLevel.INFO, "server", 
-            String.format("Generating login URL for Zerodha Kite authentication (session: %s)", clientSessionId)));
+        notifier.info(exchange, "Generating login URL for Zerodha Kite authentication (session: %s)", clientSessionId);
 
         // Encode the client_session as a redirect parameter
         String redirectParams = "client_session=" + clientSessionId;
@@ -51,8 +49,7 @@ public class LoginTool {
         );
         
         // Send a completion notification
-        exchange.loggingNotification(new LoggingMessageNotification(LoggingLevel.INFO, "server", 
-            "Login URL generated successfully for session: " + clientSessionId));
+        notifier.info(exchange, "Login URL generated successfully for session: %s", clientSessionId);
 
         return response;
     }
@@ -0,0 +1,110 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.exception.RateLimitExceededException;
+import io.github.kartikhub.exception.SessionNotFoundException;
+import io.github.kartikhub.service.KiteService;
+import io.github.kartikhub.service.PortfolioAnalytics;
+import io.github.kartikhub.service.PortfolioAnalyzer;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Holding;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PortfolioAnalyticsTool {
+    private final KiteService kiteService;
+    private final PortfolioAnalyzer portfolioAnalyzer;
+    private final ToolNotifier notifier;
+
+    private static final int DEFAULT_TOP_MOVERS = 5;
+    private static final int MAX_TOP_MOVERS = 50;
+
+    @Tool(
+        name = "portfolio_analytics",
+        description = "Summarise the user's Zerodha Kite holdings server-side instead of returning every holding. " +
+                     "Returns invested and current value, total and day P&L, the top gaining " +
+                     "and losing holdings by day change with their weighted average cost, and exposure by exchange " +
+                     "and product. An instrument held in several accounts is counted once, with its quantities " +
+                     "summed and its average price weighted by quantity. " +
+                     "Requires the session ID returned from the login tool; pass additionalSessionIds to combine " +
+                     "several logged-in accounts into one summary."
+    )
+    public PortfolioAnalytics portfolioAnalytics(
+        String sessionId,
+        @ToolParam(required = false, description = "Session IDs of other logged-in accounts to include")
+        List<String> additionalSessionIds,
+        @ToolParam(required = false, description = "Number of top gainers and losers to return (default 5, max 50)")
+        Integer topMovers,
+        ToolContext context) {
+        McpSyncServerExchange mcpExchange = McpToolUtils.getMcpExchange(context).get();
+        Set<String> sessionIds = new LinkedHashSet<>();
+        sessionIds.add(sessionId);
+        if (additionalSessionIds != null) {
+            sessionIds.addAll(additionalSessionIds);
+        }
+
+        log.debug("MCP Tool: Computing portfolio analytics for client sessions: {}", sessionIds);
+        notifier.info(mcpExchange, "Computing portfolio analytics for %d account(s)", sessionIds.size());
+
+        try {
+            List<Holding> holdings = loadHoldings(List.copyOf(sessionIds));
+            int movers = topMovers == null ? DEFAULT_TOP_MOVERS : Math.max(0, Math.min(topMovers, MAX_TOP_MOVERS));
+            PortfolioAnalytics analytics = portfolioAnalyzer.analyze(holdings, movers);
+            notifier.info(mcpExchange, "Analysed %d holdings for session: %s", analytics.holdings(), sessionId);
+            return analytics;
+        } catch (SessionNotFoundException e) {
+            String error = String.format("Session not found for %s. Please log in using the login tool first.", sessionIds);
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new IllegalStateException(error, e);
+        } catch (RateLimitExceededException e) {
+            log.warn("Rate limited while computing portfolio analytics for session {}: {}", sessionId, e.getMessage());
+            notifier.warning(mcpExchange, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            String error = String.format("Failed to compute portfolio analytics for session %s: %s", sessionId, e.getMessage());
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    /**
+     * Fetches every account's holdings concurrently and concatenates them into one snapshot; the analyzer
+     * merges instruments held in more than one account. The first
+     * account is fetched on the calling thread so a single-account request never waits on another thread;
+     * the others are forked, so joining them is safe even when this runs on the Kite call executor.
+     */
+    private List<Holding> loadHoldings(List<String> sessionIds) throws KiteException, IOException {
+        List<CompletableFuture<ArrayList<Holding>>> others = sessionIds.subList(1, sessionIds.size()).stream()
+            .map(kiteService::getHoldingsAsync)
+            .toList();
+        List<Holding> holdings = new ArrayList<>(kiteService.getHoldings(sessionIds.get(0)));
+        for (CompletableFuture<ArrayList<Holding>> future : others) {
+            try {
+                holdings.addAll(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return holdings;
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.exception.RateLimitExceededException;
+import io.github.kartikhub.exception.SessionNotFoundException;
+import io.github.kartikhub.service.KiteService;
+import io.github.kartikhub.service.PortfolioSnapshot;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PortfolioSnapshotTool {
+    private final KiteService kiteService;
+    private final ToolNotifier notifier;
+
+    @Tool(
+        name = "get_portfolio_snapshot",
+        description = "Get a complete view of the user's Zerodha Kite account in one call: holdings, net and day " +
+                     "positions, margins and the day's orders. Parts that fail or time out are returned as null " +
+                     "with the reason in 'errors', so the rest of the snapshot is still usable. " +
+                     "Requires the session ID returned from the login tool."
+    )
+    public PortfolioSnapshot getPortfolioSnapshot(String sessionId, ToolContext context) {
+        McpSyncServerExchange mcpExchange = McpToolUtils.getMcpExchange(context).get();
+
+        log.debug("MCP Tool: Fetching portfolio snapshot for client session: {}", sessionId);
+        notifier.info(mcpExchange, "Fetching portfolio snapshot for session: %s", sessionId);
+
+        try {
+            PortfolioSnapshot snapshot = kiteService.getPortfolioSnapshot(sessionId);
+            if (snapshot.isPartial()) {
+                notifier.warning(mcpExchange, "Portfolio snapshot for session %s is incomplete: %s", sessionId, snapshot.errors());
+            } else {
+                notifier.info(mcpExchange, "Retrieved portfolio snapshot for session %s in %d ms", sessionId, snapshot.elapsedMillis());
+            }
+            return snapshot;
+        } catch (SessionNotFoundException e) {
+            String error = String.format("Session not found for %s. Please log in using the login tool first.", sessionId);
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new IllegalStateException(error, e);
+        } catch (RateLimitExceededException e) {
+            log.warn("Rate limited while fetching portfolio snapshot for session {}: {}", sessionId, e.getMessage());
+            notifier.warning(mcpExchange, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            String error = String.format("Unexpected error while fetching portfolio snapshot for session %s: %s", sessionId, e.getMessage());
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new RuntimeException(error, e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.kartikhub.tool;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quotes returned by the {@code get_quotes} tool.
+ *
+ * @param quotes   quote per requested instrument, keyed as requested
+ * @param notFound requested instruments that Kite did not return a quote for
+ */
+public record QuotesResult(Map<String, ?> quotes, List<String> notFound) {
+}
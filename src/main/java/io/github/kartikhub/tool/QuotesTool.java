@@ -0,0 +1,82 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.exception.RateLimitExceededException;
+import io.github.kartikhub.exception.SessionNotFoundException;
+import io.github.kartikhub.service.KiteService;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuotesTool {
+    private final KiteService kiteService;
+    private final ToolNotifier notifier;
+
+    @Tool(
+        name = "get_quotes",
+        description = "Get market quotes from Zerodha Kite for one or more instruments in a single call. " +
+                     "Instruments are given as EXCHANGE:TRADINGSYMBOL, e.g. NSE:INFY or BSE:SENSEX. " +
+                     "Mode 'full' (default) returns OHLC, volume, depth and open interest; mode 'ltp' returns only " +
+                     "the last traded price and is cheaper for large lists. " +
+                     "Requires the session ID returned from the login tool."
+    )
+    public QuotesResult getQuotes(
+        String sessionId,
+        @ToolParam(description = "Instruments as EXCHANGE:TRADINGSYMBOL, e.g. [\"NSE:INFY\", \"NSE:TCS\"]")
+        List<String> instruments,
+        @ToolParam(required = false, description = "'full' (default) or 'ltp'")
+        String mode,
+        ToolContext context) {
+        McpSyncServerExchange mcpExchange = McpToolUtils.getMcpExchange(context).get();
+        Set<String> requested = new LinkedHashSet<>(instruments == null ? List.of() : instruments);
+        boolean ltpOnly = "ltp".equalsIgnoreCase(mode);
+
+        log.debug("MCP Tool: Fetching {} quotes for {} instruments in client session: {}",
+                  ltpOnly ? "LTP" : "full", requested.size(), sessionId);
+        notifier.info(mcpExchange, "Fetching quotes for %d instruments for session: %s", requested.size(), sessionId);
+
+        try {
+            if (requested.isEmpty()) {
+                throw new IllegalArgumentException("At least one instrument is required, e.g. NSE:INFY");
+            }
+            if (mode != null && !ltpOnly && !"full".equalsIgnoreCase(mode)) {
+                throw new IllegalArgumentException("Unknown quote mode '" + mode + "'. Use 'full' or 'ltp'.");
+            }
+            Map<String, ?> quotes = ltpOnly
+                ? kiteService.getLtp(sessionId, requested)
+                : kiteService.getQuotes(sessionId, requested);
+            List<String> notFound = requested.stream().filter(instrument -> !quotes.containsKey(instrument)).toList();
+            notifier.info(mcpExchange, "Retrieved %d of %d quotes for session: %s", quotes.size(), requested.size(), sessionId);
+            return new QuotesResult(quotes, notFound);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid get_quotes arguments for session {}: {}", sessionId, e.getMessage());
+            notifier.error(mcpExchange, e.getMessage());
+            throw e;
+        } catch (SessionNotFoundException e) {
+            String error = String.format("Session not found for %s. Please log in using the login tool first.", sessionId);
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new IllegalStateException(error, e);
+        } catch (RateLimitExceededException e) {
+            log.warn("Rate limited while fetching quotes for session {}: {}", sessionId, e.getMessage());
+            notifier.warning(mcpExchange, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            String error = String.format("Unexpected error while fetching quotes for session %s: %s", sessionId, e.getMessage());
+            log.error(error, e);
+            notifier.error(mcpExchange, error);
+            throw new RuntimeException(error, e);
+        }
+    }
+}
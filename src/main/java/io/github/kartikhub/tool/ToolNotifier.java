@@ -0,0 +1,217 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.diagnostics.Phase;
+import io.github.kartikhub.diagnostics.PhaseTimer;
+import io.github.kartikhub.diagnostics.PhaseTimers;
+import io.github.kartikhub.properties.KiteProperties;
+
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema.LoggingLevel;
+import io.modelcontextprotocol.spec.McpSchema.LoggingMessageNotification;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Sends MCP logging notifications for the tools without putting notification I/O on the request path.
+ * <p>
+ * Messages below {@code kite.notifications.level} are discarded before they are formatted. The rest are
+ * queued per exchange and delivered on a virtual thread, one drain at a time per exchange, so a burst
+ * is sent back-to-back and repeats of the same message are collapsed into one. Each exchange holds at
+ * most {@code kite.notifications.max-pending-per-exchange} messages; when that is full the lowest-level
+ * message is dropped, so warnings and errors survive a slow client.
+ */
+@Slf4j
+@Component
+public class ToolNotifier {
+    private static final String LOGGER = "server";
+
+    private final LoggingLevel minLevel;
+    private final boolean async;
+    private final int maxPending;
+    private final ExecutorService executor;
+    private final PhaseTimers phaseTimers;
+    private final Map<McpSyncServerExchange, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private record Pending(LoggingLevel level, String format, Object[] args, Supplier<String> supplier) {
+        String render() {
+            try {
+                if (supplier != null) {
+                    return supplier.get();
+                }
+                return args.length == 0 ? format : String.format(format, args);
+            } catch (RuntimeException e) {
+                // Runs on the drain thread, so a bad message must not stop delivery of the rest
+                return format != null ? format : "Notification could not be rendered: " + e.getMessage();
+            }
+        }
+    }
+
+    // Only read or changed inside a compute on outboxes for its exchange, so an outbox is never removed
+    // while an enqueue can still add to it
+    private static final class Outbox {
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private boolean draining;
+    }
+
+    public ToolNotifier(KiteProperties kiteProperties, PhaseTimers phaseTimers) {
+        KiteProperties.Notifications config = kiteProperties.getNotifications();
+        this.minLevel = LoggingLevel.valueOf(config.getLevel().trim().toUpperCase(Locale.ROOT));
+        this.async = config.isAsync();
+        this.maxPending = Math.max(1, config.getMaxPendingPerExchange());
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mcp-notify-", 0).factory());
+        this.phaseTimers = phaseTimers;
+    }
+
+    public void info(McpSyncServerExchange exchange, String format, Object... args) {
+        enqueue(exchange, LoggingLevel.INFO, format, args, null);
+    }
+
+    public void warning(McpSyncServerExchange exchange, String format, Object... args) {
+        enqueue(exchange, LoggingLevel.WARNING, format, args, null);
+    }
+
+    public void error(McpSyncServerExchange exchange, String format, Object... args) {
+        enqueue(exchange, LoggingLevel.ERROR, format, args, null);
+    }
+
+    /**
+     * Sends a message built by {@code message}, which is only called if the level is enabled.
+     */
+    public void notify(McpSyncServerExchange exchange, LoggingLevel level, Supplier<String> message) {
+        enqueue(exchange, level, null, null, message);
+    }
+
+    public boolean isEnabled(LoggingLevel level) {
+        return level.level() >= minLevel.level();
+    }
+
+    /**
+     * Notifications dropped because an exchange's queue was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void enqueue(McpSyncServerExchange exchange, LoggingLevel level, String format, Object[] args,
+                         Supplier<String> supplier) {
+        if (exchange == null || !isEnabled(level)) {
+            return;
+        }
+        Pending pending = new Pending(level, format, args, supplier);
+        if (!async) {
+            send(exchange, pending.level(), pending.render());
+            return;
+        }
+
+        Outbox[] drainNeeded = new Outbox[1];
+        outboxes.compute(exchange, (key, current) -> {
+            Outbox outbox = current != null ? current : new Outbox();
+            if (outbox.queue.size() >= maxPending && !evictLowerThan(outbox.queue, level)) {
+                dropped.incrementAndGet();
+                return outbox;
+            }
+            outbox.queue.addLast(pending);
+            if (!outbox.draining) {
+                outbox.draining = true;
+                drainNeeded[0] = outbox;
+            }
+            return outbox;
+        });
+        if (drainNeeded[0] != null) {
+            try {
+                executor.execute(() -> drain(exchange));
+            } catch (RejectedExecutionException e) {
+                // Shutting down; nothing left to deliver to
+                outboxes.remove(exchange, drainNeeded[0]);
+            }
+        }
+    }
+
+    /**
+     * Makes room by dropping the oldest queued message with the lowest level, if it is below {@code level}.
+     */
+    private boolean evictLowerThan(ArrayDeque<Pending> queue, LoggingLevel level) {
+        Pending victim = null;
+        for (Pending candidate : queue) {
+            if (victim == null || candidate.level().level() < victim.level().level()) {
+                victim = candidate;
+            }
+        }
+        if (victim == null || victim.level().level() >= level.level()) {
+            return false;
+        }
+        queue.removeFirstOccurrence(victim);
+        dropped.incrementAndGet();
+        return true;
+    }
+
+    private void drain(McpSyncServerExchange exchange) {
+        while (true) {
+            List<Pending> batch = new ArrayList<>();
+            outboxes.computeIfPresent(exchange, (key, outbox) -> {
+                if (outbox.queue.isEmpty()) {
+                    // The next enqueue creates a new outbox and starts a new drain; this one is done
+                    return null;
+                }
+                batch.addAll(outbox.queue);
+                outbox.queue.clear();
+                return outbox;
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            // Collapse consecutive repeats of the same message
+            Iterator<Pending> it = batch.iterator();
+            Pending current = it.next();
+            String text = current.render();
+            int repeats = 1;
+            while (it.hasNext()) {
+                Pending next = it.next();
+                String nextText = next.render();
+                if (next.level() == current.level() && nextText.equals(text)) {
+                    repeats++;
+                    continue;
+                }
+                send(exchange, current.level(), repeats == 1 ? text : text + " (x" + repeats + ")");
+                current = next;
+                text = nextText;
+                repeats = 1;
+            }
+            send(exchange, current.level(), repeats == 1 ? text : text + " (x" + repeats + ")");
+        }
+    }
+
+    private void send(McpSyncServerExchange exchange, LoggingLevel level, String message) {
+        PhaseTimer timer = phaseTimers.start(Phase.NOTIFICATION);
+        try {
+            exchange.loggingNotification(new LoggingMessageNotification(level, LOGGER, message));
+        } catch (Exception e) {
+            // The client may already have gone away; a lost notification must not fail anything
+            log.debug("Failed to send {} notification: {}", level, e.getMessage());
+        } finally {
+            timer.stop(null, level.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.debug("Shutting down MCP notification executor");
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,223 @@
+package io.github.kartikhub.tool;
+
+import io.github.kartikhub.properties.KiteProperties;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.zerodhatech.models.Holding;
+import com.zerodhatech.models.LTPQuote;
+import com.zerodhatech.models.Margin;
+import com.zerodhatech.models.Order;
+import com.zerodhatech.models.Position;
+import com.zerodhatech.models.Quote;
+import org.springframework.ai.util.JacksonUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Serializes tool results to the JSON text returned to MCP clients.
+ * <p>
+ * Produces the same JSON as Spring AI's default result conversion, but resolves one {@link ObjectWriter}
+ * per declared result type up front instead of per call, and writes {@link HoldingRow}s straight from
+ * the holding. Kite model objects handed out by the response and quote caches are shared and never
+ * modified, so with {@code kite.serialization.cache-encoded} their encoded JSON is kept in a bounded
+ * cache keyed by object identity; while the cached response is fresh, repeated calls copy those
+ * fragments instead of walking every field again.
+ */
+@Component
+public class ToolResultSerializer {
+    // Kite SDK models that are only ever read after the upstream call returns
+    private static final Set<Class<?>> CACHEABLE = Set.of(
+        Holding.class, Position.class, Order.class, Margin.class, Quote.class, LTPQuote.class);
+
+    private final ObjectMapper mapper;
+    private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+    // Null when caching is disabled
+    private final EncodedCache encodedCache;
+
+    public ToolResultSerializer(KiteProperties kiteProperties) {
+        KiteProperties.Serialization config = kiteProperties.getSerialization();
+        this.encodedCache = config.isCacheEncoded() ? new EncodedCache(config.getMaxCachedEntries()) : null;
+
+        SimpleModule module = new SimpleModule("kite-tool-results");
+        module.addSerializer(HoldingRow.class, cached(new HoldingRowSerializer()));
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription description,
+                                                      JsonSerializer<?> serializer) {
+                return CACHEABLE.contains(description.getBeanClass()) ? cached(serializer) : serializer;
+            }
+        });
+        // Same settings as Spring AI's JsonParser, so results look exactly as they did before
+        this.mapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .addModules(JacksonUtils.instantiateAvailableModules())
+            .addModule(module)
+            .build();
+    }
+
+    public String serialize(Object result, Type returnType) {
+        if (returnType == Void.TYPE || returnType == Void.class) {
+            return "\"Done\"";
+        }
+        ObjectWriter writer = writers.computeIfAbsent(returnType != null ? returnType : Object.class,
+            type -> mapper.writerFor(mapper.constructType(type)));
+        try {
+            return writer.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize tool result: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonSerializer<Object> cached(JsonSerializer<?> serializer) {
+        JsonSerializer<Object> delegate = (JsonSerializer<Object>) serializer;
+        return encodedCache == null ? delegate : new CachingSerializer(delegate);
+    }
+
+    private static final class HoldingRowSerializer extends StdSerializer<HoldingRow> {
+        HoldingRowSerializer() {
+            super(HoldingRow.class);
+        }
+
+        @Override
+        public void serialize(HoldingRow row, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            List<String> fields = row.fields();
+            gen.writeStartObject(row);
+            for (int i = 0; i < fields.size(); i++) {
+                provider.defaultSerializeField(fields.get(i), row.accessors().get(i).apply(row.holding()), gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes a cached fragment when there is one, otherwise encodes with {@code delegate} and keeps the result.
+     */
+    private final class CachingSerializer extends StdSerializer<Object> implements ContextualSerializer, ResolvableSerializer {
+        private final JsonSerializer<Object> delegate;
+
+        CachingSerializer(JsonSerializer<Object> delegate) {
+            super(Object.class);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Object key = EncodedCache.keyFor(value);
+            String encoded = encodedCache.get(key);
+            if (encoded == null) {
+                StringWriter fragment = new StringWriter(256);
+                try (JsonGenerator capture = mapper.getFactory().createGenerator(fragment)) {
+                    delegate.serialize(value, capture, provider);
+                }
+                encoded = fragment.toString();
+                encodedCache.put(key, encoded);
+            }
+            gen.writeRawValue(encoded);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+            if (delegate instanceof ContextualSerializer contextual) {
+                JsonSerializer<?> resolved = contextual.createContextual(provider, property);
+                if (resolved != delegate) {
+                    return new CachingSerializer((JsonSerializer<Object>) resolved);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+    }
+
+    /**
+     * Bounded cache of encoded fragments. Lookups never lock; once full, the oldest inserted fragments are
+     * evicted first. Keys hold their object strongly, so at most about {@code capacity} stale objects are
+     * kept alive after the response cache has moved on.
+     */
+    private static final class EncodedCache {
+        private final int capacity;
+        private final Map<Object, String> entries;
+        // Insertion order of the keys in entries, for eviction
+        private final Queue<Object> order = new ConcurrentLinkedQueue<>();
+
+        private record IdentityKey(Object value) {
+            @Override
+            public boolean equals(Object other) {
+                return other instanceof IdentityKey key && key.value == value;
+            }
+
+            @Override
+            public int hashCode() {
+                return System.identityHashCode(value);
+            }
+        }
+
+        // The same holding projected onto different fields encodes differently
+        private record RowKey(IdentityKey holding, List<String> fields) {
+        }
+
+        EncodedCache(int capacity) {
+            this.capacity = capacity;
+            this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1024));
+        }
+
+        static Object keyFor(Object value) {
+            return value instanceof HoldingRow row
+                ? new RowKey(new IdentityKey(row.holding()), row.fields())
+                : new IdentityKey(value);
+        }
+
+        String get(Object key) {
+            return entries.get(key);
+        }
+
+        void put(Object key, String encoded) {
+            if (entries.putIfAbsent(key, encoded) != null) {
+                return;
+            }
+            order.add(key);
+            while (entries.size() > capacity) {
+                Object eldest = order.poll();
+                if (eldest == null) {
+                    return;
+                }
+                entries.remove(eldest);
+            }
+        }
+    }
+}
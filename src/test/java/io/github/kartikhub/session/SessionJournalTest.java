@@ -0,0 +1,77 @@
+package io.github.kartikhub.session;
+
+import io.github.kartikhub.properties.KiteProperties;
+import io.github.kartikhub.session.KiteSessionManager.SessionData;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void truncatedReplayRestoresTheRestInTheBackgroundAndCompacts() throws Exception {
+        Node first = start(Duration.ofSeconds(5));
+        first.sessionManager().createSession("s1", "token-1", "user");
+        first.sessionManager().setAuthenticated("s1", true);
+        first.sessionManager().createSession("s2", null, "user");
+        first.sessionManager().createSession("s3", "token-3", "user");
+        first.sessionManager().removeSession("s3");
+        first.journal().close();
+
+        // Replay runs out of time before the first record, so every record is restored in the background
+        Node truncated = start(Duration.ZERO);
+        truncated.journal().awaitReplay();
+        assertThat(truncated.sessionManager().getSessions()).extracting(SessionData::getSessionId)
+            .containsExactlyInAnyOrder("s1", "s2");
+        assertThat(truncated.sessionManager().getSession("s1").getAccessToken()).isEqualTo("token-1");
+        assertThat(truncated.sessionManager().getSession("s1").isAuthenticated()).isTrue();
+        truncated.sessionManager().createSession("s4", "token-4", "user");
+        truncated.journal().compact();
+        truncated.journal().close();
+
+        Node restored = start(Duration.ofSeconds(5));
+        assertThat(restored.sessionManager().getSessions()).extracting(SessionData::getSessionId)
+            .containsExactlyInAnyOrder("s1", "s2", "s4");
+        assertThat(restored.sessionManager().getSession("s4").getAccessToken()).isEqualTo("token-4");
+    }
+
+    @Test
+    void fullReplayCompactsAwayRemovedSessions() throws Exception {
+        Node first = start(Duration.ofSeconds(5));
+        first.sessionManager().createSession("s1", "token-1", "user");
+        first.sessionManager().createSession("s2", "token-2", "user");
+        first.sessionManager().removeSession("s1");
+        first.journal().close();
+
+        Node restored = start(Duration.ofSeconds(5));
+        restored.journal().close();
+        assertThat(restored.sessionManager().getSessions()).extracting(SessionData::getSessionId).containsExactly("s2");
+
+        Node again = start(Duration.ofSeconds(5));
+        assertThat(again.sessionManager().getSessions()).extracting(SessionData::getSessionId).containsExactly("s2");
+    }
+
+    private record Node(KiteSessionManager sessionManager, SessionJournal journal) {
+    }
+
+    private Node start(Duration replayTimeout) throws Exception {
+        KiteProperties properties = new KiteProperties();
+        properties.setApiSecret("secret");
+        properties.getSessionStore().setPath(directory.resolve("sessions.journal").toString());
+        properties.getSessionStore().setReplayTimeout(replayTimeout);
+        StaticListableBeanFactory listeners = new StaticListableBeanFactory();
+        KiteSessionManager sessionManager = new KiteSessionManager(listeners.getBeanProvider(SessionListener.class));
+        SessionJournal journal = new SessionJournal(sessionManager, properties);
+        listeners.addBean("sessionJournal", journal);
+        journal.replay();
+        return new Node(sessionManager, journal);
+    }
+}